@@ -38,6 +38,8 @@ CREATE TABLE IF NOT EXISTS polluant (
     description    VARCHAR(50)
 );
 
+-- Partitioned by range on date; the ETL creates one partition per month (or year, see
+-- MESURE_PARTITION_INTERVAL) before loading rows into it.
 CREATE TABLE IF NOT EXISTS mesure (
     station_id    INTEGER,
     date          DATE,
@@ -51,4 +53,71 @@ CREATE TABLE IF NOT EXISTS mesure (
     FOREIGN KEY (code_polluant)
       REFERENCES polluant(code_polluant)
       ON DELETE CASCADE
+) PARTITION BY RANGE (date);
+
+-- Daily and monthly aggregates of mesure, refreshed by the ETL for the buckets it writes
+-- (ETL_ROLLUPS). The average of a bucket is valeur_somme / nb_mesures.
+CREATE TABLE IF NOT EXISTS mesure_jour (
+    station_id    INTEGER NOT NULL,
+    date          DATE NOT NULL,
+    code_polluant VARCHAR(20) NOT NULL,
+    nb_mesures    INTEGER NOT NULL,
+    valeur_min    INTEGER,
+    valeur_max    INTEGER,
+    valeur_somme  BIGINT NOT NULL,
+    PRIMARY KEY (station_id, date, code_polluant),
+    FOREIGN KEY (station_id)
+      REFERENCES station(station_id)
+      ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS mesure_mois (
+    station_id    INTEGER NOT NULL,
+    mois          DATE NOT NULL,
+    code_polluant VARCHAR(20) NOT NULL,
+    nb_mesures    INTEGER NOT NULL,
+    valeur_min    INTEGER,
+    valeur_max    INTEGER,
+    valeur_somme  BIGINT NOT NULL,
+    PRIMARY KEY (station_id, mois, code_polluant),
+    FOREIGN KEY (station_id)
+      REFERENCES station(station_id)
+      ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS etl_watermark (
+    station_id  INTEGER PRIMARY KEY,
+    last_date   DATE NOT NULL,
+    last_heure  SMALLINT NOT NULL,
+    updated_at  TIMESTAMP NOT NULL DEFAULT now()
+);
+
+-- Measurements whose station or pollutant is missing, set aside by the ETL instead of failing the load.
+CREATE TABLE IF NOT EXISTS etl_orphan (
+    station_id     INTEGER NOT NULL,
+    date           DATE,
+    heure          SMALLINT,
+    code_polluant  VARCHAR(20),
+    valeur         INTEGER,
+    reason         VARCHAR(32) NOT NULL,
+    quarantined_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+-- Measurements rejected by the database when LOAD_ISOLATE_ERRORS is set, with the error.
+CREATE TABLE IF NOT EXISTS etl_dead_letter (
+    station_id    INTEGER,
+    date          DATE,
+    heure         SMALLINT,
+    code_polluant VARCHAR(20),
+    valeur        INTEGER,
+    sql_state     VARCHAR(5),
+    error         TEXT NOT NULL,
+    failed_at     TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE TABLE IF NOT EXISTS etl_fingerprint (
+    table_name   VARCHAR(32) NOT NULL,
+    row_key      BIGINT NOT NULL,
+    fingerprint  BIGINT NOT NULL,
+    PRIMARY KEY (table_name, row_key)
 );
@@ -0,0 +1,171 @@
+package Benchmarks.Checks;
+
+import Benchmarks.Support.SyntheticCsv;
+import Etl.Extractors.MesureCsvParser;
+import Etl.Extractors.MesureExtractor;
+import Models.Etl.Utils.PolluantType;
+import Models.MesureBatch;
+import Utils.Parsing.CsvByteReader;
+import Utils.Parsing.CsvRangeSplitter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Checks that splitting a measurement file into ranges does not change what is read: a file with
+ * a byte order mark, CRLF line endings and quoted addresses holding commas, doubled quotes and
+ * line breaks must give the same rows, in the same order, read whole and split into any number
+ * of ranges, both through {@link CsvRangeSplitter} with {@link CsvByteReader} and through
+ * {@link MesureExtractor} with one thread and several. Exits with status 1 on the first difference.
+ *
+ * <pre>java -cp target/tp3bd3-1.0-SNAPSHOT-benchmarks.jar Benchmarks.Checks.CsvSplitCheck</pre>
+ */
+public final class CsvSplitCheck {
+
+    private static final int ROWS = 20_000;
+    private static final int STATIONS = 37;
+    private static final int[] RANGE_COUNTS = {2, 3, 7, 16, 64, 501};
+    private static final int[] PARALLELISMS = {2, 4, 8};
+    private static final String HEADER = "stationId,adresse,latitude,longitude,X,Y,polluant,valeur,date,heure";
+    private static final String[] ADDRESSES = {
+            "1125 rue Ontario Est",
+            "Parc, \"Pilon\" et Henri-Bourassa",
+            "Angle Sherbrooke\r\net Pie-IX",
+            "Aéroport \"\"Trudeau\"\"\nPiste 24L, entrée \"B\"",
+            "\n",
+            ""
+    };
+    private static final PolluantType[] POLLUTANTS = PolluantType.values();
+    private static final LocalDate FIRST_DAY = LocalDate.of(2021, 12, 31);
+
+    private CsvSplitCheck() { /* no instances */ }
+
+    public static void main(String[] args) {
+        SyntheticCsv.quietLogging();
+        Path directory = SyntheticCsv.createDirectory();
+        try {
+            Path file = directory.resolve("mesures-quoted.csv");
+            List<String> expected = write(file);
+
+            List<String> whole = readRange(file, 0, Long.MAX_VALUE);
+            whole.removeFirst();
+            compare("CsvByteReader, whole file", expected, whole);
+
+            long dataOffset = MesureCsvParser.dataOffset(file);
+            for (int rangeCount : RANGE_COUNTS) {
+                compare("CsvRangeSplitter, " + rangeCount + " ranges", expected, readSplit(file, dataOffset, rangeCount));
+            }
+
+            List<String> sequential = extract(file, 1);
+            check(sequential.size() == ROWS, "MesureExtractor, 1 thread: " + sequential.size() + " rows, expected " + ROWS);
+            for (int parallelism : PARALLELISMS) {
+                compare("MesureExtractor, " + parallelism + " threads", sequential, extract(file, parallelism));
+            }
+            System.out.println("CSV split check passed: " + ROWS + " rows, "
+                    + RANGE_COUNTS.length + " range counts, " + PARALLELISMS.length + " parallelisms");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            SyntheticCsv.delete(directory);
+        }
+    }
+
+    /** Writes the file and returns its data rows as the tokenizer should see them. */
+    private static List<String> write(Path file) throws IOException {
+        List<String> rows = new ArrayList<>(ROWS);
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("\uFEFF" + HEADER + "\r\n");
+            for (int i = 0; i < ROWS; i++) {
+                int stationId = i % STATIONS + 1;
+                String address = ADDRESSES[i % ADDRESSES.length] + (i % 3 == 0 ? "" : " " + i);
+                String[] fields = {
+                        Integer.toString(stationId),
+                        address,
+                        "45." + stationId,
+                        "-73." + stationId,
+                        Integer.toString(290_000 + stationId),
+                        Integer.toString(5_040_000 + stationId),
+                        POLLUTANTS[i % POLLUTANTS.length].name(),
+                        Integer.toString(i % 97),
+                        FIRST_DAY.plusDays(i / (24 * STATIONS)).toString(),
+                        Integer.toString(i / STATIONS % 24)
+                };
+                StringBuilder line = new StringBuilder();
+                for (int f = 0; f < fields.length; f++) {
+                    line.append(f == 0 ? "" : ",");
+                    line.append(f == 1 ? '"' + fields[f].replace("\"", "\"\"") + '"' : fields[f]);
+                }
+                out.write(line + "\r\n");
+                rows.add(String.join("|", fields));
+            }
+        }
+        return rows;
+    }
+
+    private static List<String> readSplit(Path file, long dataOffset, int rangeCount) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<String> rows = new ArrayList<>(ROWS);
+            for (long[] range : CsvRangeSplitter.split(file, dataOffset, rangeCount, pool)) {
+                rows.addAll(readRange(file, range[0], range[1]));
+            }
+            return rows;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<String> readRange(Path file, long start, long end) throws IOException {
+        List<String> rows = new ArrayList<>();
+        try (CsvByteReader reader = new CsvByteReader(file, start, end)) {
+            while (reader.nextRow()) {
+                String[] fields = new String[reader.getFieldCount()];
+                for (int f = 0; f < fields.length; f++) {
+                    fields[f] = reader.getString(f);
+                }
+                rows.add(String.join("|", fields));
+            }
+        }
+        return rows;
+    }
+
+    private static List<String> extract(Path file, int parallelism) {
+        List<String> rows = new ArrayList<>(ROWS);
+        try (Stream<MesureBatch> chunks = new MesureExtractor(file).streamMeasures(1_000, parallelism)) {
+            chunks.forEach(chunk -> {
+                for (int i = 0; i < chunk.size(); i++) {
+                    rows.add(chunk.get(i).toString());
+                }
+            });
+        }
+        return rows;
+    }
+
+    private static void compare(String name, List<String> expected, List<String> actual) {
+        for (int i = 0; i < Math.min(expected.size(), actual.size()); i++) {
+            check(expected.get(i).equals(actual.get(i)), name + ": row " + i + " differs\n  expected "
+                    + escape(expected.get(i)) + "\n  actual   " + escape(actual.get(i)));
+        }
+        check(expected.size() == actual.size(), name + ": " + actual.size() + " rows, expected " + expected.size());
+        System.out.println("OK " + name);
+    }
+
+    private static void check(boolean condition, String failure) {
+        if (!condition) {
+            System.err.println("CSV split check failed: " + failure);
+            System.exit(1);
+        }
+    }
+
+    private static String escape(String row) {
+        return row.replace("\r", "\\r").replace("\n", "\\n");
+    }
+}
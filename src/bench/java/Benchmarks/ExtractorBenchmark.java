@@ -0,0 +1,89 @@
+package Benchmarks;
+
+import Benchmarks.Support.SyntheticCsv;
+import Etl.Extractors.MesureExtractor;
+import Etl.Extractors.StationExtractor;
+import Models.Etl.Extractors.Dto.MesureData;
+import Models.Etl.Extractors.Dto.StationData;
+import Models.MesureBatch;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CSV parsing throughput of each extractor on synthetic files. The measurement parser is picked
+ * from the environment like in production, so run once with {@code MESURE_PARSER=jackson} (and
+ * {@code EXTRACT_PARALLELISM}) to compare the implementations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractorBenchmark {
+
+    private static final int CHUNK_SIZE = 10_000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"100"})
+    public int stations;
+
+    private Path directory;
+    private Path stationFile;
+    private Path mesureFile;
+
+    @Setup(Level.Trial)
+    public void writeFiles() {
+        SyntheticCsv.quietLogging();
+        directory = SyntheticCsv.createDirectory();
+        stationFile = SyntheticCsv.writeStations(directory, stations);
+        mesureFile = SyntheticCsv.writeMesures(directory, stations, 0, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() {
+        SyntheticCsv.delete(directory);
+    }
+
+    @Benchmark
+    public StationData stations() {
+        return new StationExtractor(stationFile).extract();
+    }
+
+    @Benchmark
+    public MesureData mesures() {
+        return new MesureExtractor(mesureFile).extract();
+    }
+
+    @Benchmark
+    public MesureData mesureDimensions() {
+        return new MesureExtractor(mesureFile).extractDimensions(CHUNK_SIZE);
+    }
+
+    @Benchmark
+    public long mesureChunks() {
+        long total = 0;
+        try (Stream<MesureBatch> chunks = new MesureExtractor(mesureFile).streamMeasures(CHUNK_SIZE)) {
+            for (MesureBatch chunk : (Iterable<MesureBatch>) chunks::iterator) {
+                total += chunk.size();
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,22 @@
+package Benchmarks.LoadTest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeneratedFiles {
+    private Path stationFile;
+    private Path mesureFile;
+    private int stations;
+    private long rows;
+    private long duplicateRows;
+    private long malformedRows;
+    private long mesureBytes;
+}
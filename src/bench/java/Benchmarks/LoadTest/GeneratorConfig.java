@@ -0,0 +1,88 @@
+package Benchmarks.LoadTest;
+
+import Models.Etl.Utils.PolluantType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static Utils.Env.EnvUtil.getDouble;
+import static Utils.Env.EnvUtil.getInt;
+import static Utils.Env.EnvUtil.getString;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeneratorConfig {
+
+    @Builder.Default
+    private int stations = 50;
+
+    @Builder.Default
+    private int years = 1;
+
+    @Builder.Default
+    private LocalDate endDate = LocalDate.of(2024, 12, 31);
+
+    /** Relative weight of each pollutant reported as the hourly index of a station. */
+    @Builder.Default
+    private Map<PolluantType, Integer> pollutantMix = parsePollutantMix("O3=40,PM=30,NO2=15,CO=10,SO2=5");
+
+    /** Share of rows written a second time with a corrected value, as in late RSQA revisions. */
+    @Builder.Default
+    private double duplicateRate = 0.0;
+
+    @Builder.Default
+    private double malformedRate = 0.0;
+
+    @Builder.Default
+    private long seed = 42;
+
+    public static GeneratorConfig fromEnv() {
+        return GeneratorConfig.builder()
+                .stations(getInt("LOADTEST_STATIONS", 50))
+                .years(getInt("LOADTEST_YEARS", 1))
+                .endDate(LocalDate.parse(getString("LOADTEST_END_DATE", "2024-12-31")))
+                .pollutantMix(parsePollutantMix(getString("LOADTEST_POLLUTANTS", "O3=40,PM=30,NO2=15,CO=10,SO2=5")))
+                .duplicateRate(getDouble("LOADTEST_DUPLICATE_RATE", 0.0))
+                .malformedRate(getDouble("LOADTEST_MALFORMED_RATE", 0.0))
+                .seed(getInt("LOADTEST_SEED", 42))
+                .build();
+    }
+
+    /** Parses {@code CODE=weight} pairs separated by commas, e.g. {@code O3=40,PM=30}. */
+    public static Map<PolluantType, Integer> parsePollutantMix(String value) {
+        Map<PolluantType, Integer> mix = new EnumMap<>(PolluantType.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            PolluantType type = PolluantType.fromCode(parts[0].trim());
+            if (parts.length != 2 || type == PolluantType.UNKNOWN) {
+                throw new IllegalArgumentException("Invalid pollutant weight '" + entry + "' in " + value);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.merge(type, weight, Integer::sum);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("No pollutant with a positive weight in " + value);
+        }
+        return mix;
+    }
+
+    public LocalDate getStartDate() {
+        return endDate.minusYears(years).plusDays(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d stations, %d year(s) to %s, mix %s, %.2f%% duplicates, %.2f%% malformed, seed %d",
+                stations, years, endDate, pollutantMix, duplicateRate * 100, malformedRate * 100, seed);
+    }
+}
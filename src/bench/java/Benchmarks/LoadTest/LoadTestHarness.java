@@ -0,0 +1,127 @@
+package Benchmarks.LoadTest;
+
+import Etl.EtlRunner;
+import Etl.Extractors.MesureExtractor;
+import Etl.Extractors.StationExtractor;
+import Models.Etl.Dto.RunReport;
+import Utils.Database.DataSourceWrapper;
+import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static Utils.Env.EnvUtil.getBoolean;
+import static Utils.Env.EnvUtil.getInt;
+import static Utils.Env.EnvUtil.getString;
+
+/**
+ * Generates RSQA-shaped files and loads them with the real {@link EtlRunner} pipeline into the
+ * database of {@code DB_URL}, then reports throughput, peak heap, GC and the time of each stage.
+ * Every ETL setting (streaming, load mode, parallelism, ...) is read from the environment as usual.
+ *
+ * <pre>DB_URL=jdbc:postgresql://localhost:5432/qualite_air?currentSchema=qualite_air,public \
+ * java -cp target/tp3bd3-1.0-SNAPSHOT-benchmarks.jar Benchmarks.LoadTest.LoadTestHarness</pre>
+ */
+public final class LoadTestHarness {
+    private static final Logger LOGGER = LoggingUtil.getLogger(LoadTestHarness.class);
+
+    private static final String LOADTEST_DIR = getString("LOADTEST_DIR", "target/loadtest");
+    private static final boolean LOADTEST_GENERATE = getBoolean("LOADTEST_GENERATE", true);
+    private static final int LOADTEST_RUNS = getInt("LOADTEST_RUNS", 1);
+
+    private LoadTestHarness() { /* no instances */ }
+
+    public static void main(String[] args) {
+        boolean success = false;
+        EtlMetrics.start();
+        try {
+            GeneratedFiles files = prepareFiles(Path.of(LOADTEST_DIR));
+            for (int run = 1; run <= LOADTEST_RUNS; run++) {
+                runOnce(files, run);
+            }
+            success = true;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Load test failed: " + e.getMessage(), e);
+        } finally {
+            EtlMetrics.stop();
+            DataSourceWrapper.shutdown();
+        }
+        if (!success) {
+            System.exit(1);
+        }
+    }
+
+    private static GeneratedFiles prepareFiles(Path directory) {
+        if (LOADTEST_GENERATE) {
+            return new RsqaGenerator(GeneratorConfig.fromEnv()).generate(directory);
+        }
+        Path stationFile = directory.resolve(RsqaGenerator.STATION_FILE);
+        Path mesureFile = directory.resolve(RsqaGenerator.MESURE_FILE);
+        if (!Files.isRegularFile(stationFile) || !Files.isRegularFile(mesureFile)) {
+            throw new IllegalStateException("LOADTEST_GENERATE=false but no generated files in " + directory);
+        }
+        LOGGER.info("Reusing generated files in " + directory);
+        return GeneratedFiles.builder().stationFile(stationFile).mesureFile(mesureFile).build();
+    }
+
+    private static void runOnce(GeneratedFiles files, int run) {
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+
+        RunReport report = EtlRunner.run(
+                new StationExtractor(files.getStationFile()),
+                new MesureExtractor(files.getMesureFile()),
+                EtlRunner.loadWatermarks(),
+                EtlRunner.loadFingerprints());
+
+        double seconds = report.getTotalNanos() / 1e9;
+        LOGGER.info(String.format(
+                "Load test run %d/%d: %,d measures extracted, %,d sent in %.1f s (%,.0f rows/s extracted, %,.0f rows/s sent)",
+                run, LOADTEST_RUNS, report.getMeasuresExtracted(), report.getMeasuresLoaded(), seconds,
+                report.getMeasuresExtracted() / seconds, report.getMeasuresLoaded() / seconds));
+        LOGGER.info(String.format(
+                "Load test run %d/%d: peak heap %,d MB (max %,d MB), %d GC cycles taking %,d ms",
+                run, LOADTEST_RUNS, peakHeapBytes() >> 20, Runtime.getRuntime().maxMemory() >> 20,
+                gcCount() - gcCount, gcMillis() - gcMillis));
+        LOGGER.info(String.format(
+                "Load test run %d/%d stages: extract %,d ms, change detection %,d ms, load %,d ms, state %,d ms",
+                run, LOADTEST_RUNS,
+                TimeUnit.NANOSECONDS.toMillis(report.getExtractNanos()),
+                TimeUnit.NANOSECONDS.toMillis(report.getFilterNanos()),
+                TimeUnit.NANOSECONDS.toMillis(report.getLoadNanos()),
+                TimeUnit.NANOSECONDS.toMillis(report.getSaveStateNanos())));
+    }
+
+    /** Sum of the peaks of the heap pools since the last reset; an upper bound of the real peak. */
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .filter(count -> count > 0)
+                .sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(time -> time > 0)
+                .sum();
+    }
+}
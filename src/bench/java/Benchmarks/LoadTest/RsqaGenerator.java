@@ -0,0 +1,255 @@
+package Benchmarks.LoadTest;
+
+import Models.Etl.Utils.PolluantType;
+import Utils.Logging.LoggingUtil;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+import java.util.logging.Logger;
+
+/**
+ * Writes a station file and an hourly measurement file shaped like the RSQA exports
+ * ({@code rsqaq_station_1975-2024.csv} and {@code rsqa-indice-qualite-air-station.csv}).
+ * Every station reports one index per hour, for the pollutant drawn from the configured mix,
+ * with a daily cycle around a per-pollutant baseline. Output is deterministic for a given seed.
+ *
+ * <pre>java -cp target/tp3bd3-1.0-SNAPSHOT-benchmarks.jar Benchmarks.LoadTest.RsqaGenerator [directory]</pre>
+ */
+public final class RsqaGenerator {
+    private static final Logger LOGGER = LoggingUtil.getLogger(RsqaGenerator.class);
+
+    public static final String STATION_FILE = "rsqaq_station_1975-2024.csv";
+    public static final String MESURE_FILE = "rsqa-indice-qualite-air-station.csv";
+
+    private static final String STATION_HEADER =
+            "\uFEFFID_STATION,NOM_STATION,RA,ADRESSE,MUNICIPALITE,TYPE_MILIEU,DATE_OUVERTURE,DATE_FERMETURE,LATITUDE,LONGITUDE";
+    private static final String MESURE_HEADER = "stationId,adresse,latitude,longitude,X,Y,polluant,valeur,date,heure";
+    private static final int FIRST_STATION_ID = 1_000;
+
+    /** Municipality, administrative region and approximate centre. */
+    private static final Object[][] MUNICIPALITIES = {
+            {"Montréal", 6, 45.5017, -73.5673},
+            {"Québec", 3, 46.8139, -71.2080},
+            {"Laval", 13, 45.6066, -73.7124},
+            {"Gatineau", 7, 45.4765, -75.7013},
+            {"Longueuil", 16, 45.5312, -73.5181},
+            {"Sherbrooke", 5, 45.4042, -71.8929},
+            {"Saguenay", 2, 48.4280, -71.0685},
+            {"Lévis", 12, 46.8033, -71.1779},
+            {"Trois-Rivières", 4, 46.3432, -72.5430},
+            {"Rouyn-Noranda", 8, 48.2366, -79.0231},
+            {"Sept-Îles", 9, 50.2169, -66.3810},
+            {"Varennes", 16, 45.6833, -73.4333},
+            {"Joliette", 14, 46.0167, -73.4500},
+            {"Val-des-Sources", 5, 45.7751, -71.9382},
+            {"Rimouski", 1, 48.4490, -68.5240},
+    };
+    private static final String[] TYPES_MILIEU = {"Urbain", "Urbain", "Urbain", "Rural", "Industriel"};
+    private static final String[] STREETS = {
+            "rue Notre-Dame", "boulevard Saint-Laurent", "rue Sherbrooke", "chemin de la Côte",
+            "avenue des Pins", "rue Principale", "boulevard Hamel", "rue du Parc"
+    };
+
+    private final GeneratorConfig config;
+    private final PolluantType[] pollutants;
+    private final int[] cumulativeWeights;
+
+    public RsqaGenerator(GeneratorConfig config) {
+        this.config = config;
+        Map<PolluantType, Integer> mix = config.getPollutantMix();
+        this.pollutants = mix.keySet().toArray(PolluantType[]::new);
+        this.cumulativeWeights = new int[pollutants.length];
+        int total = 0;
+        for (int i = 0; i < pollutants.length; i++) {
+            total += mix.get(pollutants[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] args) {
+        Path directory = Path.of(args.length > 0 ? args[0] : "target/loadtest");
+        new RsqaGenerator(GeneratorConfig.fromEnv()).generate(directory);
+    }
+
+    public GeneratedFiles generate(Path directory) {
+        LOGGER.info("Generating RSQA files in " + directory + ": " + config);
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            StationSite[] sites = createSites(new Random(config.getSeed()));
+            Path stationFile = directory.resolve(STATION_FILE);
+            writeStations(stationFile, sites);
+
+            GeneratedFiles files = writeMesures(directory.resolve(MESURE_FILE), sites, new Random(config.getSeed() + 1));
+            files.setStationFile(stationFile);
+            files.setStations(sites.length);
+
+            LOGGER.info(String.format("Generated %,d measurement rows (%,d duplicates, %,d malformed, %,d MB) in %d ms",
+                    files.getRows(), files.getDuplicateRows(), files.getMalformedRows(),
+                    files.getMesureBytes() >> 20, (System.nanoTime() - start) / 1_000_000));
+            return files;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot generate files in " + directory, e);
+        }
+    }
+
+    private StationSite[] createSites(Random random) {
+        StationSite[] sites = new StationSite[config.getStations()];
+        LocalDate start = config.getStartDate();
+        for (int i = 0; i < sites.length; i++) {
+            Object[] municipality = MUNICIPALITIES[i % MUNICIPALITIES.length];
+            double latitude = (double) municipality[2] + (random.nextDouble() - 0.5) * 0.1;
+            double longitude = (double) municipality[3] + (random.nextDouble() - 0.5) * 0.1;
+            sites[i] = new StationSite(
+                    FIRST_STATION_ID + i,
+                    (random.nextInt(9_000) + 100) + " " + STREETS[random.nextInt(STREETS.length)],
+                    (String) municipality[0],
+                    (int) municipality[1],
+                    TYPES_MILIEU[random.nextInt(TYPES_MILIEU.length)],
+                    start.minusDays(random.nextInt(20 * 365)),
+                    Math.round(latitude * 1e6) / 1e6,
+                    Math.round(longitude * 1e6) / 1e6);
+        }
+        return sites;
+    }
+
+    private static void writeStations(Path file, StationSite[] sites) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(STATION_HEADER);
+            out.write('\n');
+            for (StationSite site : sites) {
+                out.write(site.id + "," + site.municipality + " - " + site.address + "," + site.region + ","
+                        + site.address + "," + site.municipality + "," + site.typeMilieu + ","
+                        + site.opened + ",," + site.latitude + "," + site.longitude);
+                out.write('\n');
+            }
+        }
+    }
+
+    private GeneratedFiles writeMesures(Path file, StationSite[] sites, Random random) throws IOException {
+        long rows = 0;
+        long duplicates = 0;
+        long malformed = 0;
+        StringBuilder line = new StringBuilder(160);
+
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(MESURE_HEADER);
+            out.write('\n');
+            for (LocalDate date = config.getStartDate(); !date.isAfter(config.getEndDate()); date = date.plusDays(1)) {
+                String day = date.toString();
+                for (int heure = 0; heure < 24; heure++) {
+                    for (StationSite site : sites) {
+                        PolluantType polluant = drawPollutant(random);
+                        line.setLength(0);
+                        if (random.nextDouble() < config.getMalformedRate()) {
+                            appendMalformed(line, site, polluant, day, heure, random);
+                            malformed++;
+                        } else {
+                            appendRow(line, site, polluant, indexValue(polluant, heure, random), day, heure);
+                            if (random.nextDouble() < config.getDuplicateRate()) {
+                                line.append('\n');
+                                appendRow(line, site, polluant, indexValue(polluant, heure, random), day, heure);
+                                duplicates++;
+                                rows++;
+                            }
+                        }
+                        out.append(line);
+                        out.write('\n');
+                        rows++;
+                    }
+                }
+            }
+        }
+
+        return GeneratedFiles.builder()
+                .mesureFile(file)
+                .rows(rows)
+                .duplicateRows(duplicates)
+                .malformedRows(malformed)
+                .mesureBytes(Files.size(file))
+                .build();
+    }
+
+    private PolluantType drawPollutant(Random random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return pollutants[i];
+            }
+        }
+        return pollutants[pollutants.length - 1];
+    }
+
+    /** Air quality sub-index: a per-pollutant baseline, an afternoon peak and some noise. */
+    private static int indexValue(PolluantType polluant, int heure, Random random) {
+        double baseline = switch (polluant) {
+            case O3 -> 28;
+            case PM, PM25, PM10 -> 22;
+            case NO2 -> 14;
+            case CO -> 6;
+            default -> 4;
+        };
+        double daily = Math.sin((heure - 9) * Math.PI / 12) * baseline * 0.4;
+        return (int) Math.max(1, Math.round(baseline + daily + random.nextGaussian() * baseline * 0.25));
+    }
+
+    private static void appendRow(StringBuilder line, StationSite site, PolluantType polluant, int valeur,
+                                  String day, int heure) {
+        appendRow(line, site.idText, site, polluant, Integer.toString(valeur), day, heure);
+    }
+
+    private static void appendRow(StringBuilder line, String stationId, StationSite site, PolluantType polluant,
+                                  String valeur, String day, int heure) {
+        line.append(stationId).append(",\"").append(site.address).append("\",")
+                .append(site.latitude).append(',').append(site.longitude).append(',')
+                .append(site.x).append(',').append(site.y).append(",\"")
+                .append(polluant.name()).append("\",").append(valeur).append(',')
+                .append(day).append(',').append(heure);
+    }
+
+    /** A truncated row, a value that is not a number or a station id that is not a number. */
+    private static void appendMalformed(StringBuilder line, StationSite site, PolluantType polluant,
+                                        String day, int heure, Random random) {
+        switch (random.nextInt(3)) {
+            case 0 -> line.append(site.idText).append(",\"").append(site.address).append("\",").append(site.latitude);
+            case 1 -> appendRow(line, site.idText, site, polluant, "N/D", day, heure);
+            default -> appendRow(line, "S" + site.idText, site, polluant, "12", day, heure);
+        }
+    }
+
+    private static final class StationSite {
+        private final int id;
+        private final String idText;
+        private final String address;
+        private final String municipality;
+        private final int region;
+        private final String typeMilieu;
+        private final LocalDate opened;
+        private final double latitude;
+        private final double longitude;
+        private final double x;
+        private final double y;
+
+        private StationSite(int id, String address, String municipality, int region, String typeMilieu,
+                            LocalDate opened, double latitude, double longitude) {
+            this.id = id;
+            this.idText = Integer.toString(id);
+            this.address = address;
+            this.municipality = municipality;
+            this.region = region;
+            this.typeMilieu = typeMilieu;
+            this.opened = opened;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            // Rough MTM zone 8 projection, close enough for the X/Y columns of the export.
+            this.x = Math.round((304_000 + (longitude + 73.5) * 78_000) * 1e6) / 1e6;
+            this.y = Math.round((5_050_000 + (latitude - 45.6) * 111_000) * 1e6) / 1e6;
+        }
+    }
+}
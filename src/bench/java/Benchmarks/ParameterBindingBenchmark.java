@@ -0,0 +1,125 @@
+package Benchmarks;
+
+import Benchmarks.Support.NoOpPreparedStatement;
+import Etl.Loaders.UpsertTables;
+import Models.Etl.Utils.PolluantType;
+import Models.MesureBatch;
+import Models.Station;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static Benchmarks.Support.StatementUtil.setOrNull;
+
+/**
+ * Cost of binding one row with {@link Benchmarks.Support.StatementUtil#setOrNull} (boxing plus a
+ * type switch per column) against the typed column binders of {@link UpsertTables}, which call the
+ * primitive setters and take dates from {@code SqlDateCache}. Scores are per row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParameterBindingBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private final NoOpPreparedStatement ps = new NoOpPreparedStatement(null);
+    private final MesureBatch measures = new MesureBatch(ROWS);
+    private final List<Station> stations = new ArrayList<>(ROWS);
+
+    @Setup(Level.Trial)
+    public void createRows() {
+        Random random = new Random(42);
+        PolluantType[] pollutants = PolluantType.values();
+        int firstDay = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+        for (int i = 0; i < ROWS; i++) {
+            measures.add(i % 100 + 1, firstDay + i / 2_400, i / 100 % 24,
+                    pollutants[random.nextInt(pollutants.length)], random.nextInt(120));
+            stations.add(Station.builder()
+                    .stationId(i + 1)
+                    .adresse(i + " rue Synthétique")
+                    .latitude(45 + random.nextDouble())
+                    .longitude(-74 + random.nextDouble())
+                    .dateOuverture(i % 3 == 0 ? null : LocalDate.ofEpochDay(firstDay - i))
+                    .municipaliteId(i % 50 + 1)
+                    .typeMilieuId(i % 4 + 1)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long mesureSetOrNull() throws SQLException {
+        for (int i = 0; i < ROWS; i++) {
+            setOrNull(ps, 1, measures.getStationId(i), Types.INTEGER);
+            setOrNull(ps, 2, measures.getDate(i), Types.DATE);
+            setOrNull(ps, 3, measures.getHeure(i), Types.SMALLINT);
+            setOrNull(ps, 4, measures.getCodePolluant(i), Types.VARCHAR);
+            setOrNull(ps, 5, measures.getValeur(i), Types.INTEGER);
+            ps.addBatch();
+        }
+        ps.executeBatch();
+        return ps.getChecksum();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long mesureTypedBinder() throws SQLException {
+        for (int i = 0; i < ROWS; i++) {
+            UpsertTables.MESURE.bind(ps, measures, i);
+            ps.addBatch();
+        }
+        ps.executeBatch();
+        return ps.getChecksum();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long stationSetOrNull() throws SQLException {
+        for (Station s : stations) {
+            setOrNull(ps, 1, s.getStationId(), Types.INTEGER);
+            setOrNull(ps, 2, s.getAdresse(), Types.VARCHAR);
+            setOrNull(ps, 3, s.getLatitude(), Types.DOUBLE);
+            setOrNull(ps, 4, s.getLongitude(), Types.DOUBLE);
+            setOrNull(ps, 5, s.getXCoord(), Types.DOUBLE);
+            setOrNull(ps, 6, s.getYCoord(), Types.DOUBLE);
+            setOrNull(ps, 7, s.getDateOuverture(), Types.DATE);
+            setOrNull(ps, 8, s.getDateFermeture(), Types.DATE);
+            setOrNull(ps, 9, s.getMunicipaliteId(), Types.INTEGER);
+            setOrNull(ps, 10, s.getTypeMilieuId(), Types.INTEGER);
+            ps.addBatch();
+        }
+        ps.executeBatch();
+        return ps.getChecksum();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long stationTypedBinder() throws SQLException {
+        for (int i = 0; i < ROWS; i++) {
+            UpsertTables.STATION.bind(ps, stations, i);
+            ps.addBatch();
+        }
+        ps.executeBatch();
+        return ps.getChecksum();
+    }
+}
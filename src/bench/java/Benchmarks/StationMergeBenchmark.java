@@ -0,0 +1,70 @@
+package Benchmarks;
+
+import Benchmarks.Support.SyntheticCsv;
+import Etl.DataExtractor;
+import Etl.Extractors.MesureExtractor;
+import Etl.Extractors.StationExtractor;
+import Models.Etl.Extractors.Dto.CsvData;
+import Models.Etl.Extractors.Dto.MesureData;
+import Models.Etl.Extractors.Dto.StationData;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link DataExtractor#combineData}: merging the station file with the coordinates found in the
+ * measurements and enriching stations that only appear in the measurements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StationMergeBenchmark {
+
+    @Param({"100", "10000"})
+    public int stations;
+
+    /** Stations reporting measurements without being in the station file. */
+    @Param({"0", "10"})
+    public int unknownStations;
+
+    private StationData stationData;
+    private MesureData mesureData;
+
+    @Setup(Level.Trial)
+    public void extract() {
+        SyntheticCsv.quietLogging();
+        Path directory = SyntheticCsv.createDirectory();
+        try {
+            Path stationFile = SyntheticCsv.writeStations(directory, stations);
+            Path mesureFile = SyntheticCsv.writeMesures(directory, stations, unknownStations, (stations + unknownStations) * 24);
+            stationData = new StationExtractor(stationFile).extract();
+            mesureData = new MesureExtractor(mesureFile).extract();
+        } finally {
+            SyntheticCsv.delete(directory);
+        }
+    }
+
+    @Benchmark
+    public CsvData combine() {
+        return DataExtractor.combineData(stationData, mesureData, false);
+    }
+
+    @Benchmark
+    public CsvData combineMeasuredOnly() {
+        return DataExtractor.combineData(stationData, mesureData, true);
+    }
+}
@@ -1,10 +1,14 @@
-package Utils.Database;
+package Benchmarks.Support;
 
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.time.LocalDate;
 
+/**
+ * The generic binder the loaders used before {@code UpsertTable} typed its columns: every value
+ * is boxed and dispatched on its runtime type. Kept as the baseline of the binding benchmark.
+ */
 public final class StatementUtil {
 
     private StatementUtil() { /* no instances */ }
@@ -0,0 +1,125 @@
+package Benchmarks.Support;
+
+import Models.Etl.Utils.PolluantType;
+import Utils.Logging.LoggingUtil;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Writes deterministic station and measurement files in the layout of the RSQA exports, so the
+ * benchmarks can parse inputs of any size. Measurement rows walk the hours from 2020-01-01 and
+ * give every station one row per hour, in the order of the real file.
+ */
+public final class SyntheticCsv {
+
+    private static final Logger ETL_LOGGER = Logger.getLogger("QualiteAirETL");
+
+    private static final String STATION_HEADER =
+            "\uFEFFID_STATION,NOM_STATION,RA,ADRESSE,MUNICIPALITE,TYPE_MILIEU,DATE_OUVERTURE,DATE_FERMETURE,LATITUDE,LONGITUDE";
+    private static final String MESURE_HEADER = "stationId,adresse,latitude,longitude,X,Y,polluant,valeur,date,heure";
+    private static final String[] TYPES = {"Urbain", "Rural", "Industriel", "Résidentiel"};
+    private static final PolluantType[] POLLUTANTS = {
+            PolluantType.CO, PolluantType.NO2, PolluantType.O3, PolluantType.PM, PolluantType.SO2
+    };
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+
+    private SyntheticCsv() { /* no instances */ }
+
+    /** Keeps the per-batch logging of the ETL (and its warnings about synthetic stations) out of the measurements. */
+    public static void quietLogging() {
+        LoggingUtil.getLogger(SyntheticCsv.class);
+        ETL_LOGGER.setLevel(Level.SEVERE);
+    }
+
+    public static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("tp3bd3-bench");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Stations 1..{@code stations}, spread over {@code stations / 10 + 1} municipalities. */
+    public static Path writeStations(Path directory, int stations) {
+        Path file = directory.resolve("stations-" + stations + ".csv");
+        Random random = new Random(stations);
+        int municipalities = stations / 10 + 1;
+
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(STATION_HEADER);
+            out.newLine();
+            for (int id = 1; id <= stations; id++) {
+                LocalDate opened = FIRST_DAY.minusDays(random.nextInt(10_000));
+                out.write(id + ",Station " + id + "," + (id % 17 + 1) + ",\"" + address(id) + "\","
+                        + "Municipalité " + (id % municipalities) + "," + TYPES[id % TYPES.length] + ","
+                        + opened + "," + (id % 5 == 0 ? opened.plusDays(3_650) : "") + ","
+                        + latitude(id) + "," + longitude(id));
+                out.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return file;
+    }
+
+    /**
+     * {@code rows} hourly measurements for stations 1..{@code stations}. When {@code unknownStations}
+     * is above zero, that many extra station ids (not in the station file) also report values.
+     */
+    public static Path writeMesures(Path directory, int stations, int unknownStations, int rows) {
+        Path file = directory.resolve("mesures-" + stations + "-" + unknownStations + "-" + rows + ".csv");
+        Random random = new Random(rows);
+        int reporting = stations + unknownStations;
+
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(MESURE_HEADER);
+            out.newLine();
+            for (int row = 0; row < rows; row++) {
+                int id = row % reporting + 1;
+                int hourIndex = row / reporting;
+                LocalDate date = FIRST_DAY.plusDays(hourIndex / 24);
+                out.write(id + ",\"" + address(id) + "\"," + latitude(id) + "," + longitude(id) + ","
+                        + (300_000 + id * 13.5) + "," + (5_050_000 + id * 7.25) + ",\""
+                        + POLLUTANTS[random.nextInt(POLLUTANTS.length)] + "\"," + random.nextInt(120) + ","
+                        + date + "," + hourIndex % 24);
+                out.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return file;
+    }
+
+    public static void delete(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String address(int id) {
+        return id * 10 + " A, rue Synthétique";
+    }
+
+    private static double latitude(int id) {
+        return 45.0 + (id % 1_000) / 1_000.0;
+    }
+
+    private static double longitude(int id) {
+        return -74.0 + (id % 997) / 997.0;
+    }
+}
@@ -0,0 +1,75 @@
+package Benchmarks;
+
+import Benchmarks.Support.SyntheticCsv;
+import Etl.DataExtractor;
+import Etl.Extractors.MesureExtractor;
+import Etl.Extractors.StationExtractor;
+import Etl.State.RowFingerprints;
+import Etl.State.StationWatermarks;
+import Models.Etl.Extractors.Dto.CsvData;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Everything a run does before talking to the database: extract both files, merge the stations
+ * and, optionally, the change detection of the incremental modes. Watermarks and fingerprints
+ * start empty, so every row passes the filters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TransformBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"100", "1000"})
+    public int stations;
+
+    private Path directory;
+    private Path stationFile;
+    private Path mesureFile;
+
+    @Setup(Level.Trial)
+    public void writeFiles() {
+        SyntheticCsv.quietLogging();
+        directory = SyntheticCsv.createDirectory();
+        stationFile = SyntheticCsv.writeStations(directory, stations);
+        mesureFile = SyntheticCsv.writeMesures(directory, stations, stations / 20, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() {
+        SyntheticCsv.delete(directory);
+    }
+
+    @Benchmark
+    public CsvData readAll() {
+        return DataExtractor.readAll(
+                new StationExtractor(stationFile), new MesureExtractor(mesureFile), StationWatermarks.disabled());
+    }
+
+    @Benchmark
+    public CsvData readAllIncremental() {
+        StationWatermarks watermarks = StationWatermarks.empty();
+        CsvData data = DataExtractor.readAll(
+                new StationExtractor(stationFile), new MesureExtractor(mesureFile), watermarks);
+        return RowFingerprints.empty().filter(data);
+    }
+}
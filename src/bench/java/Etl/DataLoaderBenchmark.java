@@ -0,0 +1,73 @@
+package Etl;
+
+import Benchmarks.Support.NoOpPreparedStatement;
+import Benchmarks.Support.SyntheticCsv;
+import Etl.Extractors.MesureExtractor;
+import Etl.Extractors.StationExtractor;
+import Etl.Loaders.DimensionLookup;
+import Etl.State.StationWatermarks;
+import Models.Etl.Extractors.Dto.CsvData;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The client side of {@code DataLoader} in batch mode: building the statements and binding every
+ * row through {@code executeBatch}, against a connection that sends nothing. Lives in the
+ * {@code Etl} package to reach the package-private insert methods. The orphan check is seeded
+ * with the synthetic dimensions, since the connection has none to return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataLoaderBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private final Connection connection = NoOpPreparedStatement.connection();
+    private CsvData data;
+
+    @Setup(Level.Trial)
+    public void extract() {
+        SyntheticCsv.quietLogging();
+        Path directory = SyntheticCsv.createDirectory();
+        try {
+            data = DataExtractor.readAll(
+                    new StationExtractor(SyntheticCsv.writeStations(directory, 100)),
+                    new MesureExtractor(SyntheticCsv.writeMesures(directory, 100, 0, rows)),
+                    StationWatermarks.disabled());
+        } finally {
+            SyntheticCsv.delete(directory);
+        }
+        DimensionLookup.seed(data.getStations(), data.getPollutants());
+    }
+
+    @Benchmark
+    public CsvData insertDimensions() throws SQLException {
+        DataLoader.insertDimensions(connection, data);
+        return data;
+    }
+
+    @Benchmark
+    public CsvData insertMesures() throws SQLException {
+        DataLoader.insertMesures(connection, data.getMeasures());
+        return data;
+    }
+}
@@ -0,0 +1,348 @@
+package Api;
+
+import Models.Api.Dto.ReadingResponse;
+import Models.Api.Dto.StationResponse;
+import Models.MesureBatch;
+import Models.Station;
+import Utils.Collections.LruCache;
+import Utils.Database.CommitHooks;
+import Utils.Database.DataSourceWrapper;
+import Utils.Logging.LoggingUtil;
+import Utils.Metrics.MetricsRegistry;
+import Utils.Spatial.StationIndex;
+import Utils.Time.EpochDayUtil;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static Utils.Env.EnvUtil.getInt;
+
+/**
+ * Station metadata and the last {@code READ_CACHE_HOURS} hours of readings per station, in two
+ * LRU caches bounded by {@code READ_CACHE_STATIONS} entries with a {@code READ_CACHE_TTL_SECONDS}
+ * time to live. A miss reads the database once; afterwards the {@link Etl.DataLoader} write path
+ * keeps cached stations current: written rows are merged into the cached windows after their
+ * transaction commits, and dropped if it rolls back.
+ * <p>
+ * The {@link StationIndex} used by the spatial lookups is built from every station in the
+ * database on first use, then rebuilt from the merged station list of each committed load.
+ * <p>
+ * A database read that overlaps a commit for the same station is returned but not cached, since
+ * it may predate the commit: every committed write bumps the station's write sequence, and a
+ * loaded value is only stored if that sequence has not moved during the read.
+ */
+public final class ReadCache {
+    private static final Logger LOGGER = LoggingUtil.getLogger(ReadCache.class);
+
+    static final int READ_CACHE_HOURS = Math.max(1, getInt("READ_CACHE_HOURS", 48));
+    private static final int READ_CACHE_STATIONS = getInt("READ_CACHE_STATIONS", 1_000);
+    private static final int READ_CACHE_TTL_SECONDS = getInt("READ_CACHE_TTL_SECONDS", 300);
+
+    private static final String STATION_SQL = """
+            SELECT station_id, adresse, latitude, longitude, x_coord, y_coord,
+                   date_ouverture, date_fermeture, municipalite_id, type_milieu_id
+            FROM station
+            WHERE station_id = ?
+            """;
+
+    private static final String ALL_STATIONS_SQL = """
+            SELECT station_id, adresse, latitude, longitude, x_coord, y_coord,
+                   date_ouverture, date_fermeture, municipalite_id, type_milieu_id
+            FROM station
+            """;
+
+    private static final String READINGS_SQL = """
+            SELECT date, heure, code_polluant, valeur
+            FROM mesure
+            WHERE station_id = ?
+            ORDER BY date DESC, heure DESC
+            LIMIT ?
+            """;
+
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(READ_CACHE_TTL_SECONDS);
+    private static final LruCache<Integer, Optional<StationResponse>> STATIONS =
+            new LruCache<>(READ_CACHE_STATIONS, TTL_NANOS);
+    private static final LruCache<Integer, StationReadings> READINGS =
+            new LruCache<>(READ_CACHE_STATIONS, TTL_NANOS);
+
+    private static final Object WRITE_LOCK = new Object();
+    /** Sequence of the last committed write per station; one entry per station ever written. */
+    private static final Map<Integer, Long> LAST_WRITE = new HashMap<>();
+    private static long writeSequence;
+    /** Every station known to the index, by id; fed by the write path before the first lookup too. */
+    private static final Map<Integer, Station> KNOWN_STATIONS = new HashMap<>();
+    private static volatile StationIndex stationIndex;
+
+    private static volatile boolean enabled;
+
+    private ReadCache() { /* no instances */ }
+
+    /** Starts feeding the caches from the write path; without a read service it stays off. */
+    static synchronized void enable(MetricsRegistry registry) {
+        if (enabled) {
+            return;
+        }
+        registerMetrics(registry, "stations", STATIONS);
+        registerMetrics(registry, "readings", READINGS);
+        enabled = true;
+        LOGGER.info(() -> String.format("Read cache: %d stations, %d hours of readings, %d s TTL",
+                READ_CACHE_STATIONS, READ_CACHE_HOURS, READ_CACHE_TTL_SECONDS));
+    }
+
+    static synchronized void disable() {
+        enabled = false;
+        STATIONS.clear();
+        READINGS.clear();
+        synchronized (WRITE_LOCK) {
+            KNOWN_STATIONS.clear();
+            stationIndex = null;
+        }
+    }
+
+    private static void registerMetrics(MetricsRegistry registry, String cache, LruCache<?, ?> lru) {
+        registry.counter("read_cache_requests_total", "Read cache lookups by result.",
+                lru::getHits, "cache", cache, "result", "hit");
+        registry.counter("read_cache_requests_total", "Read cache lookups by result.",
+                lru::getMisses, "cache", cache, "result", "miss");
+        registry.counter("read_cache_evictions_total", "Entries evicted for size or age.",
+                lru::getEvictions, "cache", cache);
+        registry.gauge("read_cache_entries", "Entries currently cached.", lru::size, "cache", cache);
+    }
+
+    /** Called by the loader after upserting {@code stations} on {@code conn}. */
+    public static void stationsWritten(Connection conn, List<Station> stations) throws SQLException {
+        if (!enabled || stations.isEmpty()) {
+            return;
+        }
+        List<StationResponse> responses = stations.stream().map(ReadCache::toResponse).toList();
+        CommitHooks.afterCommit(conn, () -> {
+            synchronized (WRITE_LOCK) {
+                long sequence = ++writeSequence;
+                for (StationResponse station : responses) {
+                    LAST_WRITE.put(station.getStationId(), sequence);
+                    STATIONS.put(station.getStationId(), Optional.of(station));
+                }
+                stations.forEach(station -> KNOWN_STATIONS.put(station.getStationId(), station));
+                if (stationIndex != null) {
+                    stationIndex = StationIndex.build(KNOWN_STATIONS.values());
+                }
+            }
+        });
+    }
+
+    /**
+     * Called by the loader after writing {@code measures} on {@code conn}. Only the rows of
+     * stations cached right now are kept until the commit and merged then; the others bump the
+     * write sequence of their station and are invalidated, since a miss between the write and the
+     * commit may have cached a window without the new rows.
+     */
+    public static void measuresWritten(Connection conn, MesureBatch measures) throws SQLException {
+        if (!enabled || measures.isEmpty()) {
+            return;
+        }
+        int[] touched = distinctStations(measures);
+        int[] cached = Arrays.stream(touched).filter(id -> READINGS.containsKey(id)).toArray();
+
+        Map<Integer, MesureBatch> rowsByStation = new HashMap<>();
+        if (cached.length > 0) {
+            for (int i = 0; i < measures.size(); i++) {
+                int stationId = measures.getStationId(i);
+                if (Arrays.binarySearch(cached, stationId) >= 0) {
+                    rowsByStation.computeIfAbsent(stationId, id -> new MesureBatch()).addFrom(measures, i);
+                }
+            }
+        }
+
+        CommitHooks.afterCommit(conn, () -> {
+            synchronized (WRITE_LOCK) {
+                long sequence = ++writeSequence;
+                for (int stationId : touched) {
+                    LAST_WRITE.put(stationId, sequence);
+                    MesureBatch rows = rowsByStation.get(stationId);
+                    if (rows == null) {
+                        READINGS.invalidate(stationId);
+                    } else {
+                        READINGS.update(stationId, readings -> readings.merge(rows, READ_CACHE_HOURS));
+                    }
+                }
+            }
+        });
+    }
+
+    private static int[] distinctStations(MesureBatch measures) {
+        int[] ids = new int[measures.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = measures.getStationId(i);
+        }
+        return Arrays.stream(ids).sorted().distinct().toArray();
+    }
+
+    static Optional<StationResponse> station(int stationId) throws SQLException {
+        Optional<StationResponse> cached = STATIONS.get(stationId);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = lastWrite(stationId);
+        Optional<StationResponse> loaded = loadStation(stationId);
+        storeIfUnchanged(STATIONS, stationId, loaded, seen);
+        return loaded;
+    }
+
+    static StationReadings readings(int stationId) throws SQLException {
+        StationReadings cached = READINGS.get(stationId);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = lastWrite(stationId);
+        StationReadings loaded = loadReadings(stationId);
+        storeIfUnchanged(READINGS, stationId, loaded, seen);
+        return loaded;
+    }
+
+    static StationIndex stationIndex() throws SQLException {
+        StationIndex index = stationIndex;
+        if (index != null) {
+            return index;
+        }
+        List<Station> stored = loadAllStations();
+        synchronized (WRITE_LOCK) {
+            if (stationIndex == null) {
+                // Stations written meanwhile are newer than what was read.
+                stored.forEach(station -> KNOWN_STATIONS.putIfAbsent(station.getStationId(), station));
+                stationIndex = StationIndex.build(KNOWN_STATIONS.values());
+                LOGGER.info("Built the station index over " + stationIndex.size() + " stations");
+            }
+            return stationIndex;
+        }
+    }
+
+    private static long lastWrite(int stationId) {
+        synchronized (WRITE_LOCK) {
+            return LAST_WRITE.getOrDefault(stationId, 0L);
+        }
+    }
+
+    private static <V> void storeIfUnchanged(LruCache<Integer, V> cache, int stationId, V value, long seen) {
+        synchronized (WRITE_LOCK) {
+            if (LAST_WRITE.getOrDefault(stationId, 0L) == seen) {
+                cache.put(stationId, value);
+            }
+        }
+    }
+
+    /**
+     * A pooled connection in auto-commit mode: the ETL leaves them with auto-commit off, and a read
+     * would otherwise leave the session idle in a transaction, holding locks the loaders need.
+     */
+    private static Connection readConnection() throws SQLException {
+        Connection conn = DataSourceWrapper.getConnection();
+        try {
+            conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            DataSourceWrapper.releaseConnection(conn);
+            throw e;
+        }
+        return conn;
+    }
+
+    private static Optional<StationResponse> loadStation(int stationId) throws SQLException {
+        Connection conn = readConnection();
+        try (PreparedStatement ps = conn.prepareStatement(STATION_SQL)) {
+            ps.setInt(1, stationId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(toResponse(toStation(rs))) : Optional.empty();
+            }
+        } finally {
+            DataSourceWrapper.releaseConnection(conn);
+        }
+    }
+
+    private static List<Station> loadAllStations() throws SQLException {
+        List<Station> stations = new ArrayList<>();
+        Connection conn = readConnection();
+        try (PreparedStatement ps = conn.prepareStatement(ALL_STATIONS_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                stations.add(toStation(rs));
+            }
+        } finally {
+            DataSourceWrapper.releaseConnection(conn);
+        }
+        return stations;
+    }
+
+    private static Station toStation(ResultSet rs) throws SQLException {
+        return Station.builder()
+                .stationId(rs.getInt("station_id"))
+                .adresse(rs.getString("adresse"))
+                .latitude(rs.getDouble("latitude"))
+                .longitude(rs.getDouble("longitude"))
+                .xCoord(rs.getDouble("x_coord"))
+                .yCoord(rs.getDouble("y_coord"))
+                .dateOuverture(toLocalDate(rs.getDate("date_ouverture")))
+                .dateFermeture(toLocalDate(rs.getDate("date_fermeture")))
+                .municipaliteId(rs.getInt("municipalite_id"))
+                .typeMilieuId(rs.getInt("type_milieu_id"))
+                .build();
+    }
+
+    private static StationReadings loadReadings(int stationId) throws SQLException {
+        TreeMap<Integer, ReadingResponse> byHour = new TreeMap<>();
+        Connection conn = readConnection();
+        try (PreparedStatement ps = conn.prepareStatement(READINGS_SQL)) {
+            ps.setInt(1, stationId);
+            ps.setInt(2, READ_CACHE_HOURS);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    LocalDate date = rs.getDate("date").toLocalDate();
+                    int heure = rs.getInt("heure");
+                    Integer valeur = rs.getInt("valeur");
+                    if (rs.wasNull()) {
+                        valeur = null;
+                    }
+                    byHour.put(StationReadings.hourKey(EpochDayUtil.toEpochDay(date), heure), ReadingResponse.builder()
+                            .date(date.toString())
+                            .heure(heure)
+                            .codePolluant(rs.getString("code_polluant"))
+                            .valeur(valeur)
+                            .build());
+                }
+            }
+        } finally {
+            DataSourceWrapper.releaseConnection(conn);
+        }
+        return StationReadings.of(byHour, READ_CACHE_HOURS);
+    }
+
+    static StationResponse toResponse(Station station) {
+        return StationResponse.builder()
+                .stationId(station.getStationId())
+                .adresse(station.getAdresse())
+                .latitude(station.getLatitude())
+                .longitude(station.getLongitude())
+                .xCoord(station.getXCoord())
+                .yCoord(station.getYCoord())
+                .dateOuverture(station.getDateOuverture() == null ? null : station.getDateOuverture().toString())
+                .dateFermeture(station.getDateFermeture() == null ? null : station.getDateFermeture().toString())
+                .municipaliteId(station.getMunicipaliteId())
+                .typeMilieuId(station.getTypeMilieuId())
+                .build();
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+}
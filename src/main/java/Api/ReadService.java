@@ -0,0 +1,221 @@
+package Api;
+
+import Models.Api.Dto.NearbyStationResponse;
+import Models.Api.Dto.ReadingResponse;
+import Models.Api.Dto.SeriesResponse;
+import Models.Api.Dto.StationResponse;
+import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
+import Utils.Spatial.StationIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static Utils.Env.EnvUtil.getInt;
+import static Utils.Env.EnvUtil.getString;
+
+/**
+ * Read-only JSON API over the loaded data, served from {@link ReadCache} when
+ * {@code READ_API_PORT} is set. Meant to run next to the daemon, whose loads keep the cache
+ * current:
+ * <ul>
+ *   <li>{@code GET /stations/{id}}: station metadata;</li>
+ *   <li>{@code GET /stations/{id}/latest}: the latest reading;</li>
+ *   <li>{@code GET /stations/{id}/readings?hours=48}: the readings of the last hours, up to
+ *       {@code READ_CACHE_HOURS}, ending at the latest reading;</li>
+ *   <li>{@code GET /stations/nearest?lat=45.5&lon=-73.6&k=5}: the closest stations with their
+ *       distance;</li>
+ *   <li>{@code GET /stations/within?minLat=..&minLon=..&maxLat=..&maxLon=..}: the stations in a
+ *       box.</li>
+ * </ul>
+ */
+public final class ReadService {
+    private static final Logger LOGGER = LoggingUtil.getLogger(ReadService.class);
+
+    private static final int READ_API_PORT = getInt("READ_API_PORT", 0);
+    private static final String READ_API_HOST = getString("READ_API_HOST", "127.0.0.1");
+
+    private static final String CONTEXT = "/stations/";
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int DEFAULT_NEIGHBOURS = 5;
+    private static final int MAX_NEIGHBOURS = 100;
+
+    private static HttpServer server;
+    private static ExecutorService executor;
+
+    private ReadService() { /* no instances */ }
+
+    public static synchronized void start() {
+        if (READ_API_PORT <= 0 || server != null) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(READ_API_HOST, READ_API_PORT), 0);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Read service disabled: cannot listen on "
+                    + READ_API_HOST + ":" + READ_API_PORT, e);
+            return;
+        }
+        // Misses block on the database, so each request gets its own virtual thread.
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(CONTEXT, ReadService::handle);
+        ReadCache.enable(EtlMetrics.registry());
+        server.start();
+        LOGGER.info("Serving station data on http://" + READ_API_HOST + ":" + server.getAddress().getPort() + CONTEXT);
+    }
+
+    public static synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+        ReadCache.disable();
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            try {
+                route(exchange);
+            } catch (SQLException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Read request failed: " + exchange.getRequestURI(), e);
+                respond(exchange, 503, error("Data temporarily unavailable"));
+            }
+        }
+    }
+
+    private static void route(HttpExchange exchange) throws IOException, SQLException {
+        String[] path = exchange.getRequestURI().getPath().substring(CONTEXT.length()).split("/");
+        if (path.length == 1 && ("nearest".equals(path[0]) || "within".equals(path[0]))) {
+            respondSpatial(exchange, path[0], queryParameters(exchange));
+            return;
+        }
+        int stationId;
+        try {
+            stationId = Integer.parseInt(path[0]);
+        } catch (NumberFormatException e) {
+            respond(exchange, 404, error("Unknown station " + path[0]));
+            return;
+        }
+
+        if (path.length == 1) {
+            Optional<StationResponse> station = ReadCache.station(stationId);
+            respond(exchange, station.isPresent() ? 200 : 404,
+                    station.isPresent() ? station.get() : error("Unknown station " + stationId));
+        } else if (path.length == 2 && "latest".equals(path[1])) {
+            ReadingResponse latest = ReadCache.readings(stationId).latest();
+            respond(exchange, latest != null ? 200 : 404,
+                    latest != null ? latest : error("No readings for station " + stationId));
+        } else if (path.length == 2 && "readings".equals(path[1])) {
+            respondSeries(exchange, stationId);
+        } else {
+            respond(exchange, 404, error("Unknown resource"));
+        }
+    }
+
+    private static void respondSeries(HttpExchange exchange, int stationId) throws IOException, SQLException {
+        int hours;
+        try {
+            hours = Integer.parseInt(queryParameters(exchange).getOrDefault("hours", "" + ReadCache.READ_CACHE_HOURS));
+        } catch (NumberFormatException e) {
+            hours = -1;
+        }
+        if (hours < 1 || hours > ReadCache.READ_CACHE_HOURS) {
+            respond(exchange, 400, error("hours must be between 1 and " + ReadCache.READ_CACHE_HOURS));
+            return;
+        }
+        respond(exchange, 200, SeriesResponse.builder()
+                .stationId(stationId)
+                .hours(hours)
+                .readings(ReadCache.readings(stationId).lastHours(hours))
+                .build());
+    }
+
+    private static void respondSpatial(HttpExchange exchange, String lookup, Map<String, String> parameters)
+            throws IOException, SQLException {
+        try {
+            if ("nearest".equals(lookup)) {
+                double lat = number(parameters, "lat");
+                double lon = number(parameters, "lon");
+                int k = parameters.containsKey("k") ? (int) number(parameters, "k") : DEFAULT_NEIGHBOURS;
+                if (k < 1 || k > MAX_NEIGHBOURS) {
+                    respond(exchange, 400, error("k must be between 1 and " + MAX_NEIGHBOURS));
+                    return;
+                }
+                respond(exchange, 200, ReadCache.stationIndex().nearest(lat, lon, k).stream()
+                        .map(station -> NearbyStationResponse.builder()
+                                .station(ReadCache.toResponse(station))
+                                .distanceKm(StationIndex.distanceKm(station, lat, lon))
+                                .build())
+                        .toList());
+            } else {
+                respond(exchange, 200, ReadCache.stationIndex().within(
+                                number(parameters, "minLat"), number(parameters, "minLon"),
+                                number(parameters, "maxLat"), number(parameters, "maxLon")).stream()
+                        .map(ReadCache::toResponse)
+                        .toList());
+            }
+        } catch (NumberFormatException e) {
+            respond(exchange, 400, error(e.getMessage()));
+        }
+    }
+
+    private static double number(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null) {
+            throw new NumberFormatException("Missing parameter " + name);
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Invalid parameter " + name + ": " + value);
+        }
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int equals = pair.indexOf('=');
+                if (equals > 0) {
+                    parameters.put(pair.substring(0, equals), pair.substring(equals + 1));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    private static Map<String, String> error(String message) {
+        return Map.of("error", message);
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] json = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, json.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(json);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package Api;
+
+import Models.Api.Dto.ReadingResponse;
+import Models.MesureBatch;
+import Utils.Time.EpochDayUtil;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The most recent readings of one station, at most one per hour, covering the window of
+ * hours that ends at its latest reading. Immutable: a merge returns a new instance.
+ */
+final class StationReadings {
+    private static final int HOURS_PER_DAY = 24;
+
+    private final NavigableMap<Integer, ReadingResponse> byHour;
+
+    private StationReadings(NavigableMap<Integer, ReadingResponse> byHour) {
+        this.byHour = Collections.unmodifiableNavigableMap(byHour);
+    }
+
+    /** Builds the window from readings keyed by {@link #hourKey(int, int)}. */
+    static StationReadings of(TreeMap<Integer, ReadingResponse> byHour, int windowHours) {
+        return new StationReadings(trim(byHour, windowHours));
+    }
+
+    /** Adds or replaces the rows of {@code rows}, which all belong to this station, in row order. */
+    StationReadings merge(MesureBatch rows, int windowHours) {
+        TreeMap<Integer, ReadingResponse> merged = new TreeMap<>(byHour);
+        StringBuilder date = new StringBuilder(10);
+        for (int i = 0; i < rows.size(); i++) {
+            int epochDay = rows.getEpochDay(i);
+            if (epochDay == EpochDayUtil.NO_DATE) {
+                continue;
+            }
+            date.setLength(0);
+            EpochDayUtil.appendIsoDate(date, epochDay);
+            merged.put(hourKey(epochDay, rows.getHeure(i)), ReadingResponse.builder()
+                    .date(date.toString())
+                    .heure(rows.getHeure(i))
+                    .codePolluant(rows.getCodePolluant(i))
+                    .valeur(rows.getValeur(i))
+                    .build());
+        }
+        return new StationReadings(trim(merged, windowHours));
+    }
+
+    ReadingResponse latest() {
+        return byHour.isEmpty() ? null : byHour.lastEntry().getValue();
+    }
+
+    /** Readings of the last {@code hours} hours, oldest first. */
+    List<ReadingResponse> lastHours(int hours) {
+        if (byHour.isEmpty()) {
+            return List.of();
+        }
+        return List.copyOf(byHour.tailMap(byHour.lastKey() - hours, false).values());
+    }
+
+    static int hourKey(int epochDay, int heure) {
+        return epochDay * HOURS_PER_DAY + heure;
+    }
+
+    private static TreeMap<Integer, ReadingResponse> trim(TreeMap<Integer, ReadingResponse> byHour, int windowHours) {
+        if (!byHour.isEmpty()) {
+            byHour.headMap(byHour.lastKey() - windowHours, true).clear();
+        }
+        return byHour;
+    }
+}
@@ -0,0 +1,298 @@
+package Etl.Daemon;
+
+import Etl.EtlRunner;
+import Etl.Extractors.MesureExtractor;
+import Etl.Extractors.StationExtractor;
+import Etl.State.RowFingerprints;
+import Etl.State.StationWatermarks;
+import Models.Etl.Daemon.Dto.FileStatus;
+import Models.Etl.Utils.FileState;
+import Utils.Database.DataSourceWrapper;
+import Utils.Logging.LoggingUtil;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static Utils.Env.EnvUtil.getInt;
+import static Utils.Env.EnvUtil.getString;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Keeps the JVM and connection pool alive and loads CSV files as they arrive in the watched
+ * directory. Events are debounced for {@code DAEMON_QUIET_MS}; each changed measurement file is
+ * then loaded from the last processed byte, so an appended file only costs its new rows.
+ * A change to the station file reprocesses every known measurement file.
+ */
+public final class IngestionDaemon {
+    private static final Logger LOGGER = LoggingUtil.getLogger(IngestionDaemon.class);
+
+    private static final String DAEMON_WATCH_DIR = getString("DAEMON_WATCH_DIR", "data");
+    private static final int DAEMON_QUIET_MS = getInt("DAEMON_QUIET_MS", 2_000);
+    private static final int DAEMON_SHUTDOWN_SECONDS = getInt("DAEMON_SHUTDOWN_SECONDS", 60);
+
+    private final Path directory;
+    private final Path stationFile;
+    private final Map<Path, FileStatus> statuses = new ConcurrentHashMap<>();
+    private final Set<Path> dirty = new LinkedHashSet<>();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private volatile boolean running = true;
+    private volatile WatchService watchService;
+    private long lastEventNanos;
+
+    private StationWatermarks watermarks;
+    private RowFingerprints fingerprints;
+
+    public IngestionDaemon(Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.stationFile = Path.of(StationExtractor.getCSV_FILE_PATH()).toAbsolutePath().normalize();
+    }
+
+    public static void run() {
+        new IngestionDaemon(Path.of(DAEMON_WATCH_DIR)).runUntilStopped();
+    }
+
+    public Collection<FileStatus> getStatuses() {
+        return Collections.unmodifiableCollection(statuses.values());
+    }
+
+    public void runUntilStopped() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "ingestion-daemon-shutdown"));
+        LOGGER.info("Ingestion daemon watching " + directory + " (quiet period " + DAEMON_QUIET_MS + " ms)");
+
+        try (WatchService ws = FileSystems.getDefault().newWatchService()) {
+            watchService = ws;
+            directory.register(ws, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+            watermarks = EtlRunner.loadWatermarks();
+            fingerprints = EtlRunner.loadFingerprints();
+
+            scanDirectory();
+            while (running) {
+                if (!dirty.isEmpty() && System.nanoTime() - lastEventNanos >= TimeUnit.MILLISECONDS.toNanos(DAEMON_QUIET_MS)) {
+                    processDirtyFiles();
+                    continue;
+                }
+                WatchKey key = ws.poll(DAEMON_QUIET_MS, TimeUnit.MILLISECONDS);
+                if (key != null && !handleEvents(key)) {
+                    LOGGER.severe("Watched directory " + directory + " is no longer accessible; stopping");
+                    break;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            if (running) {
+                LOGGER.log(Level.SEVERE, "Watch service closed unexpectedly", e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warning("Ingestion daemon interrupted");
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Cannot watch " + directory, e);
+        } finally {
+            try {
+                logStatuses();
+                DataSourceWrapper.shutdown();
+                LOGGER.info("Ingestion daemon stopped");
+            } finally {
+                stopped.countDown();
+            }
+        }
+    }
+
+    /** Lets the file being loaded finish, then stops the loop. Called from the shutdown hook. */
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        LOGGER.info("Shutdown requested; finishing the current file");
+        running = false;
+        WatchService ws = watchService;
+        if (ws != null) {
+            try {
+                ws.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Error closing watch service", e);
+            }
+        }
+        try {
+            if (!stopped.await(DAEMON_SHUTDOWN_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warning("Ingestion daemon did not stop within " + DAEMON_SHUTDOWN_SECONDS + " seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void scanDirectory() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.csv")) {
+            for (Path file : files) {
+                markDirty(file.toAbsolutePath().normalize());
+            }
+        }
+    }
+
+    private boolean handleEvents(WatchKey key) throws IOException {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                LOGGER.warning("Watch events overflowed; rescanning " + directory);
+                scanDirectory();
+                continue;
+            }
+            Path file = directory.resolve((Path) event.context()).normalize();
+            if (!file.getFileName().toString().endsWith(".csv")) {
+                continue;
+            }
+            if (event.kind() == ENTRY_DELETE) {
+                dirty.remove(file);
+                if (statuses.remove(file) != null) {
+                    LOGGER.info("File removed: " + file);
+                }
+            } else {
+                markDirty(file);
+            }
+        }
+        return key.reset();
+    }
+
+    private void markDirty(Path file) {
+        dirty.add(file);
+        lastEventNanos = System.nanoTime();
+    }
+
+    private void processDirtyFiles() {
+        List<Path> batch = new ArrayList<>(dirty);
+        dirty.clear();
+
+        if (batch.remove(stationFile)) {
+            LOGGER.info("Station file changed; reprocessing all measurement files");
+            for (Map.Entry<Path, FileStatus> entry : statuses.entrySet()) {
+                entry.getValue().setProcessedBytes(0);
+                if (!batch.contains(entry.getKey())) {
+                    batch.add(entry.getKey());
+                }
+            }
+        }
+
+        for (Path file : batch) {
+            if (!running) {
+                dirty.addAll(batch.subList(batch.indexOf(file), batch.size()));
+                break;
+            }
+            processFile(file);
+        }
+        logStatuses();
+    }
+
+    private void processFile(Path file) {
+        FileStatus status = statuses.computeIfAbsent(file, path -> FileStatus.builder()
+                .path(path.toString())
+                .state(FileState.PENDING)
+                .updatedAt(Instant.now())
+                .build());
+
+        long from = status.getProcessedBytes();
+        long to;
+        try {
+            long size = Files.size(file);
+            if (size < from) {
+                LOGGER.info("File " + file + " shrank from " + from + " to " + size + " bytes; reloading it");
+                from = 0;
+            }
+            to = completeRowsEnd(file, from, size);
+        } catch (IOException e) {
+            markFailed(status, "Cannot read file: " + e.getMessage());
+            return;
+        }
+        if (to <= from) {
+            return;
+        }
+
+        status.setState(FileState.PROCESSING);
+        status.setUpdatedAt(Instant.now());
+        long start = System.nanoTime();
+        try {
+            long loaded = EtlRunner.run(new MesureExtractor(file, from, to), watermarks, fingerprints).getMeasuresLoaded();
+            status.setProcessedBytes(to);
+            status.setRowsLoaded(status.getRowsLoaded() + loaded);
+            status.setState(FileState.LOADED);
+            status.setLastError(null);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Loading " + file + " failed; it will be retried when it changes", e);
+            status.setState(FileState.FAILED);
+            status.setLastError(e.getMessage());
+        } finally {
+            status.setRuns(status.getRuns() + 1);
+            status.setLastRunMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            status.setUpdatedAt(Instant.now());
+        }
+    }
+
+    private void markFailed(FileStatus status, String error) {
+        LOGGER.warning(status.getPath() + ": " + error);
+        status.setState(FileState.FAILED);
+        status.setLastError(error);
+        status.setUpdatedAt(Instant.now());
+    }
+
+    /**
+     * End of the last complete row at or after {@code from}. A trailing row without a newline only
+     * counts once the file has been quiet for the debounce period, so a half-written line is left
+     * for the next event.
+     */
+    private static long completeRowsEnd(Path file, long from, long size) throws IOException {
+        long quietSince = System.currentTimeMillis() - DAEMON_QUIET_MS;
+        if (Files.getLastModifiedTime(file).toMillis() <= quietSince) {
+            return size;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            long end = size;
+            while (end > from) {
+                long start = Math.max(from, end - buffer.capacity());
+                buffer.clear().limit((int) (end - start));
+                channel.read(buffer, start);
+                for (int i = (int) (end - start) - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        return start + i + 1;
+                    }
+                }
+                end = start;
+            }
+            return from;
+        }
+    }
+
+    private void logStatuses() {
+        for (FileStatus status : statuses.values()) {
+            LOGGER.info(() -> String.format("%s: %s, %d bytes processed, %d rows loaded in %d runs (last %d ms)%s",
+                    status.getPath(), status.getState(), status.getProcessedBytes(), status.getRowsLoaded(),
+                    status.getRuns(), status.getLastRunMillis(),
+                    status.getLastError() == null ? "" : ", last error: " + status.getLastError()));
+        }
+    }
+}
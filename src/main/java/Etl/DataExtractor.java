@@ -1,19 +1,27 @@
 package Etl;
 
+import Etl.Extractors.MesureDeduplicator;
 import Etl.Extractors.MesureExtractor;
 import Etl.Extractors.StationExtractor;
+import Etl.State.StationWatermarks;
 import Models.Etl.Extractors.Dto.CsvData;
 import Models.Etl.Extractors.Dto.MesureData;
 import Models.Etl.Extractors.Dto.StationData;
+import Models.Etl.Utils.EtlStage;
+import Models.MesureBatch;
 import Models.Municipalite;
 import Models.Station;
 import Models.TypeMilieu;
+import Utils.Collections.IntHashSet;
+import Utils.Collections.IntIntHashMap;
+import Utils.Encoding.StringDictionary;
 import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
 import lombok.Getter;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static Utils.Env.EnvUtil.*;
 
@@ -25,130 +33,243 @@ public class DataExtractor {
     private static final String DEFAULT_MUNICIPALITY = getString("DEFAULT_MUNICIPALITY", "Montréal");
     private static final String DEFAULT_ENVIRONMENT_TYPE = getString("DEFAULT_ENVIRONMENT_TYPE", "Urbain");
     private static final int DEFAULT_ENTITY_ID = getInt("DEFAULT_ENTITY_ID", 1);
+    private static final int EXTRACT_CHUNK_SIZE = getInt("EXTRACT_CHUNK_SIZE", 10_000);
 
     public static CsvData readAll() {
+        return readAll(StationWatermarks.disabled());
+    }
+
+    public static CsvData readAll(StationWatermarks watermarks) {
+        return readAll(new MesureExtractor(), watermarks);
+    }
+
+    public static CsvData readAll(MesureExtractor mesureExtractor, StationWatermarks watermarks) {
+        return readAll(new StationExtractor(), mesureExtractor, watermarks);
+    }
+
+    public static CsvData readAll(
+            StationExtractor stationExtractor,
+            MesureExtractor mesureExtractor,
+            StationWatermarks watermarks) {
         LOGGER.info("Starting data extraction process");
 
-        StationExtractor stationExtractor = new StationExtractor();
         StationData stationData = stationExtractor.extract();
         LOGGER.info("Station extraction complete: " + stationData.getStations().size() + " stations");
 
-        MesureExtractor mesureExtractor = new MesureExtractor();
         MesureData mesureData = mesureExtractor.extract();
         LOGGER.info("Measurement extraction complete: " + mesureData.getMeasures().size() + " measurements");
 
-        CsvData combinedData = combineData(stationData, mesureData);
+        MesureBatch measures = mesureData.getMeasures();
+        mesureData.setMeasures(MesureDeduplicator.deduplicate(measures));
+        if (mesureData.getMeasures() != measures) {
+            LOGGER.info("Collapsed " + (measures.size() - mesureData.getMeasures().size())
+                    + " duplicate measurements, keeping the last of each (station, date, hour)");
+        }
+
+        if (watermarks.isEnabled()) {
+            mesureData.setMeasures(watermarks.filter(mesureData.getMeasures()));
+            LOGGER.info("Incremental extraction: " + mesureData.getMeasures().size() + " new measurements, "
+                    + watermarks.getSkippedRows() + " already loaded");
+        }
+
+        CsvData combinedData = combineData(stationData, mesureData, mesureExtractor.isPartial());
 
         logExtractedDataSummary(combinedData);
 
         return combinedData;
     }
 
-    private static CsvData combineData(
+    public static CsvData readDimensions() {
+        return readDimensions(new MesureExtractor());
+    }
+
+    public static CsvData readDimensions(MesureExtractor mesureExtractor) {
+        return readDimensions(new StationExtractor(), mesureExtractor);
+    }
+
+    public static CsvData readDimensions(StationExtractor stationExtractor, MesureExtractor mesureExtractor) {
+        LOGGER.info("Starting dimension extraction process (chunk size " + EXTRACT_CHUNK_SIZE + ")");
+
+        StationData stationData = stationExtractor.extract();
+        LOGGER.info("Station extraction complete: " + stationData.getStations().size() + " stations");
+
+        MesureData mesureDimensions = readMesureDimensions(mesureExtractor);
+
+        CsvData dimensions = combineData(stationData, mesureDimensions, mesureExtractor.isPartial());
+
+        logExtractedDataSummary(dimensions);
+
+        return dimensions;
+    }
+
+    /** Stations and pollutants seen in the measurement file, without keeping the measurements. */
+    public static MesureData readMesureDimensions(MesureExtractor mesureExtractor) {
+        MesureData mesureDimensions = mesureExtractor.extractDimensions(EXTRACT_CHUNK_SIZE);
+        LOGGER.info("Measurement dimension extraction complete: " + mesureDimensions.getStations().size() + " stations");
+        return mesureDimensions;
+    }
+
+    public static Stream<MesureBatch> streamMeasures() {
+        return streamMeasures(StationWatermarks.disabled());
+    }
+
+    public static Stream<MesureBatch> streamMeasures(StationWatermarks watermarks) {
+        return streamMeasures(new MesureExtractor(), watermarks);
+    }
+
+    public static Stream<MesureBatch> streamMeasures(MesureExtractor mesureExtractor, StationWatermarks watermarks) {
+        return prepareChunks(mesureExtractor.streamMeasures(EXTRACT_CHUNK_SIZE), watermarks);
+    }
+
+    public static Stream<MesureBatch> streamMeasures(
+            MesureExtractor mesureExtractor,
+            StationWatermarks watermarks,
+            int parallelism) {
+        return prepareChunks(mesureExtractor.streamMeasures(EXTRACT_CHUNK_SIZE, parallelism), watermarks);
+    }
+
+    /** Collapses duplicate keys within each chunk, then drops the rows at or below the watermarks. */
+    private static Stream<MesureBatch> prepareChunks(Stream<MesureBatch> chunks, StationWatermarks watermarks) {
+        Stream<MesureBatch> deduplicated = chunks.map(MesureDeduplicator::deduplicate);
+        if (!watermarks.isEnabled()) {
+            return deduplicated;
+        }
+        return deduplicated.map(watermarks::filter).filter(chunk -> !chunk.isEmpty());
+    }
+
+    /**
+     * When {@code measuredStationsOnly} is set (the measurement file was only partly read), stations
+     * absent from the read rows are left out: their coordinates come from rows that were not seen.
+     */
+    public static CsvData combineData(
             StationData stationData,
-            MesureData mesureData) {
+            MesureData mesureData,
+            boolean measuredStationsOnly) {
 
-        Map<String, Integer> municipalityIdMap = ensureDefaultsInMunicipalityMap(
-                new HashMap<>(stationData.getMunicipalityIdMap())
-        );
+        long start = System.nanoTime();
+        StringDictionary municipalities = stationData.getMunicipalities();
+        StringDictionary typeMilieux = stationData.getTypeMilieux();
 
-        Map<String, Integer> typeIdMap = ensureDefaultsInTypeMap(
-                new HashMap<>(stationData.getTypeIdMap())
-        );
+        int defaultMunicipalityId = ensureDefault(municipalities, DEFAULT_MUNICIPALITY, "municipality");
+        int defaultTypeId = ensureDefault(typeMilieux, DEFAULT_ENVIRONMENT_TYPE, "environment type");
 
-        List<Municipalite> municipalites = createMunicipaliteEntities(municipalityIdMap);
-        List<TypeMilieu> typeMilieux = createTypeMilieuEntities(typeIdMap);
+        List<Municipalite> municipalites = createMunicipaliteEntities(municipalities);
+        List<TypeMilieu> typeMilieuEntities = createTypeMilieuEntities(typeMilieux);
 
         List<Station> mergedStations = mergeStations(
                 stationData.getStations(),
                 mesureData.getStations(),
                 stationData.getStationMunicipalites(),
                 stationData.getStationTypeMilieux(),
-                municipalityIdMap,
-                typeIdMap
+                defaultMunicipalityId,
+                defaultTypeId
         );
 
-        return CsvData.builder()
+        if (measuredStationsOnly) {
+            IntHashSet measured = new IntHashSet(mesureData.getStations().size());
+            mesureData.getStations().forEach(station -> measured.add(station.getStationId()));
+            mergedStations.removeIf(station -> !measured.contains(station.getStationId()));
+        }
+
+        CsvData combined = CsvData.builder()
                 .stations(mergedStations)
                 .pollutants(mesureData.getPollutants())
                 .measures(mesureData.getMeasures())
                 .municipalites(municipalites)
-                .typeMilieux(typeMilieux)
+                .typeMilieux(typeMilieuEntities)
+                .firstEpochDay(mesureData.getFirstEpochDay())
+                .lastEpochDay(mesureData.getLastEpochDay())
                 .build();
+        EtlMetrics.record(EtlStage.TRANSFORM, start, mergedStations.size());
+        return combined;
     }
 
-    private static Map<String, Integer> ensureDefaultsInMunicipalityMap(Map<String, Integer> municipalityMap) {
-        if (!municipalityMap.containsKey(DEFAULT_MUNICIPALITY)) {
-            municipalityMap.put(DEFAULT_MUNICIPALITY, DEFAULT_ENTITY_ID);
-            LOGGER.info("Added default municipality '" + DEFAULT_MUNICIPALITY + "' with ID " + DEFAULT_ENTITY_ID);
+    private static int ensureDefault(StringDictionary dictionary, String value, String label) {
+        int code = dictionary.codeOf(value);
+        if (code != StringDictionary.NO_CODE) {
+            return code;
         }
-        return municipalityMap;
-    }
-
-    private static Map<String, Integer> ensureDefaultsInTypeMap(Map<String, Integer> typeMap) {
-        if (!typeMap.containsKey(DEFAULT_ENVIRONMENT_TYPE)) {
-            typeMap.put(DEFAULT_ENVIRONMENT_TYPE, DEFAULT_ENTITY_ID);
-            LOGGER.info("Added default environment type '" + DEFAULT_ENVIRONMENT_TYPE + "' with ID " + DEFAULT_ENTITY_ID);
+        if (dictionary.isAssigned(DEFAULT_ENTITY_ID)) {
+            code = dictionary.encode(value);
+            LOGGER.warning("ID " + DEFAULT_ENTITY_ID + " is already used by '" + dictionary.decode(DEFAULT_ENTITY_ID)
+                    + "', added default " + label + " '" + value + "' with ID " + code);
+        } else {
+            code = dictionary.define(value, DEFAULT_ENTITY_ID);
+            LOGGER.info("Added default " + label + " '" + value + "' with ID " + code);
         }
-        return typeMap;
+        return code;
     }
 
-    private static List<Municipalite> createMunicipaliteEntities(Map<String, Integer> municipalityMap) {
-        return municipalityMap.entrySet().stream()
-                .map(entry -> new Municipalite(entry.getValue(), entry.getKey()))
-                .collect(Collectors.toList());
+    private static List<Municipalite> createMunicipaliteEntities(StringDictionary municipalities) {
+        List<Municipalite> entities = new ArrayList<>(municipalities.size());
+        municipalities.forEach((id, nom) -> entities.add(new Municipalite(id, nom)));
+        return entities;
     }
 
-    private static List<TypeMilieu> createTypeMilieuEntities(Map<String, Integer> typeMap) {
-        return typeMap.entrySet().stream()
-                .map(entry -> new TypeMilieu(entry.getValue(), entry.getKey()))
-                .collect(Collectors.toList());
+    private static List<TypeMilieu> createTypeMilieuEntities(StringDictionary typeMilieux) {
+        List<TypeMilieu> entities = new ArrayList<>(typeMilieux.size());
+        typeMilieux.forEach((id, nom) -> entities.add(new TypeMilieu(id, nom)));
+        return entities;
     }
 
+    /**
+     * Stations of the station file, first occurrence of each id, with the coordinates of the
+     * measurement file where it has them, followed by the stations only found in measurements.
+     * Ids are looked up in a primitive map of list positions.
+     */
     private static List<Station> mergeStations(
             List<Station> stationStations,
             List<Station> mesureStations,
-            Map<Integer, String> stationMunicipalites,
-            Map<Integer, String> stationTypeMilieux,
-            Map<String, Integer> municipalityIdMap,
-            Map<String, Integer> typeIdMap) {
+            IntIntHashMap stationMunicipalites,
+            IntIntHashMap stationTypeMilieux,
+            int defaultMunicipalityId,
+            int defaultTypeId) {
 
-        Map<Integer, Station> stationMap = convertStationsToMap(stationStations);
-        Map<Integer, Station> mesureStationMap = convertStationsToMap(mesureStations);
+        List<Station> mergedStations = new ArrayList<>(stationStations.size() + mesureStations.size());
+        IntIntHashMap positions = indexStations(stationStations, mergedStations);
 
-        logMissingStations(stationMap, mesureStationMap);
+        List<Station> uniqueMesureStations = new ArrayList<>(mesureStations.size());
+        indexStations(mesureStations, uniqueMesureStations);
 
-        Map<Integer, Station> mergedStations = new LinkedHashMap<>(stationMap);
+        logMissingStations(positions, uniqueMesureStations);
 
-        for (Station mesureStation : mesureStationMap.values()) {
+        for (Station mesureStation : uniqueMesureStations) {
             int stationId = mesureStation.getStationId();
+            int position = positions.get(stationId, -1);
 
-            if (mergedStations.containsKey(stationId)) {
-                updateExistingStation(mergedStations, mesureStation);
+            if (position >= 0) {
+                mergedStations.set(position, updateStationWithCoordinates(mergedStations.get(position), mesureStation));
             } else {
-                addNewStation(
-                        mergedStations,
+                positions.put(stationId, mergedStations.size());
+                mergedStations.add(createNewStation(
                         mesureStation,
-                        stationMunicipalites,
-                        stationTypeMilieux,
-                        municipalityIdMap,
-                        typeIdMap
-                );
+                        stationMunicipalites.get(stationId, defaultMunicipalityId),
+                        stationTypeMilieux.get(stationId, defaultTypeId)
+                ));
             }
         }
 
-        return new ArrayList<>(mergedStations.values());
+        return mergedStations;
     }
 
-    private static void logMissingStations(
-            Map<Integer, Station> stationMap,
-            Map<Integer, Station> mesureStationMap) {
+    /** Appends the first station of each id to {@code unique} and returns the id to position map. */
+    private static IntIntHashMap indexStations(List<Station> stations, List<Station> unique) {
+        IntIntHashMap positions = new IntIntHashMap(stations.size());
+        for (Station station : stations) {
+            if (!positions.containsKey(station.getStationId())) {
+                positions.put(station.getStationId(), unique.size());
+                unique.add(station);
+            }
+        }
+        return positions;
+    }
 
-        Set<Integer> missingStationIds = new HashSet<>();
+    private static void logMissingStations(IntIntHashMap stationPositions, List<Station> mesureStations) {
+        List<Integer> missingStationIds = new ArrayList<>();
 
-        for (Integer stationId : mesureStationMap.keySet()) {
-            if (!stationMap.containsKey(stationId)) {
-                missingStationIds.add(stationId);
+        for (Station station : mesureStations) {
+            if (!stationPositions.containsKey(station.getStationId())) {
+                missingStationIds.add(station.getStationId());
             }
         }
 
@@ -159,90 +280,13 @@ public class DataExtractor {
         }
     }
 
-    private static Map<Integer, Station> convertStationsToMap(List<Station> stations) {
-        return stations.stream()
-                .collect(Collectors.toMap(
-                        Station::getStationId,
-                        station -> station,
-                        (existing, replacement) -> existing,
-                        LinkedHashMap::new
-                ));
-    }
-
-    private static void updateExistingStation(
-            Map<Integer, Station> mergedStations,
-            Station mesureStation) {
-
-        int stationId = mesureStation.getStationId();
-        Station existing = mergedStations.get(stationId);
-
-        Station updated = updateStationWithCoordinates(existing, mesureStation);
-        mergedStations.put(stationId, updated);
-    }
-
-    private static void addNewStation(
-            Map<Integer, Station> mergedStations,
-            Station mesureStation,
-            Map<Integer, String> stationMunicipalites,
-            Map<Integer, String> stationTypeMilieux,
-            Map<String, Integer> municipalityIdMap,
-            Map<String, Integer> typeIdMap) {
-
-        int stationId = mesureStation.getStationId();
-
-        String municipality = getStationMunicipality(stationId, stationMunicipalites);
-        String type = getStationEnvironmentType(stationId, stationTypeMilieux);
-
-        if (!municipalityIdMap.containsKey(municipality)) {
-            LOGGER.warning("Municipality '" + municipality + "' not found in ID map, using default");
-            municipality = DEFAULT_MUNICIPALITY;
-        }
-
-        if (!typeIdMap.containsKey(type)) {
-            LOGGER.warning("Environment type '" + type + "' not found in ID map, using default");
-            type = DEFAULT_ENVIRONMENT_TYPE;
-        }
-
-        int municipalityId = municipalityIdMap.get(municipality);
-        int typeId = typeIdMap.get(type);
-
-        Station newStation = createStationWithMetadata(
-                mesureStation,
-                municipalityId,
-                typeId
-        );
-
-        mergedStations.put(stationId, newStation);
+    private static Station createNewStation(Station mesureStation, int municipalityId, int typeId) {
+        Station newStation = createStationWithMetadata(mesureStation, municipalityId, typeId);
 
         LOGGER.info(String.format(
-                "Created new station with ID: %d, municipality: '%s' (ID: %d), type: '%s' (ID: %d)",
-                stationId, municipality, municipalityId, type, typeId));
-    }
-
-    private static String getStationMunicipality(
-            int stationId,
-            Map<Integer, String> stationMunicipalites) {
-
-        String municipality = stationMunicipalites.getOrDefault(stationId, DEFAULT_MUNICIPALITY);
-
-        if (!stationMunicipalites.containsKey(stationId)) {
-            LOGGER.fine("No municipality found for station ID: " + stationId + ", using default: " + DEFAULT_MUNICIPALITY);
-        }
-
-        return municipality;
-    }
-
-    private static String getStationEnvironmentType(
-            int stationId,
-            Map<Integer, String> stationTypeMilieux) {
-
-        String type = stationTypeMilieux.getOrDefault(stationId, DEFAULT_ENVIRONMENT_TYPE);
-
-        if (!stationTypeMilieux.containsKey(stationId)) {
-            LOGGER.fine("No environment type found for station ID: " + stationId + ", using default: " + DEFAULT_ENVIRONMENT_TYPE);
-        }
-
-        return type;
+                "Created new station with ID: %d, municipality ID: %d, type ID: %d",
+                newStation.getStationId(), municipalityId, typeId));
+        return newStation;
     }
 
     private static Station createStationWithMetadata(
@@ -1,7 +1,19 @@
 package Etl;
 
+import Api.ReadCache;
+import Etl.Loaders.ChunkedCommitter;
+import Etl.Loaders.DimensionLookup;
+import Etl.Loaders.LoadStrategy;
+import Etl.Loaders.MesureCopyLoader;
+import Etl.Loaders.ParallelMesureLoader;
+import Etl.Loaders.PartitionManager;
+import Etl.Loaders.RollupMaintainer;
+import Etl.Loaders.SavepointBisector;
+import Etl.Loaders.UpsertTable;
 import Models.Etl.Extractors.Dto.CsvData;
-import Models.Mesure;
+import Models.Etl.Utils.LoadMode;
+import Models.Etl.Utils.PartitionKey;
+import Models.MesureBatch;
 import Models.Municipalite;
 import Models.Polluant;
 import Models.Station;
@@ -9,177 +21,260 @@ import Models.TypeMilieu;
 import Utils.Database.DatabaseUtil;
 import Utils.Logging.LoggingUtil;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.sql.Types;
-import java.util.Arrays;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
-import java.util.logging.Level;
+import java.util.Locale;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
-import static Utils.Database.StatementUtil.setOrNull;
+import static Etl.Loaders.UpsertTables.MESURE;
+import static Etl.Loaders.UpsertTables.MUNICIPALITE;
+import static Etl.Loaders.UpsertTables.POLLUANT;
+import static Etl.Loaders.UpsertTables.STATION;
+import static Etl.Loaders.UpsertTables.TYPE_MILIEU;
+import static Utils.Env.EnvUtil.getBoolean;
+import static Utils.Env.EnvUtil.getInt;
+import static Utils.Env.EnvUtil.getString;
 
 public final class DataLoader {
     private static final Logger LOGGER = LoggingUtil.getLogger(DataLoader.class);
 
+    private static final LoadMode LOAD_MODE = LoadMode.fromString(getString("LOAD_MODE", "batch"));
+    private static final int LOAD_BATCH_SIZE = getInt("LOAD_BATCH_SIZE", 5_000);
+    private static final boolean LOAD_ISOLATE_ERRORS = getBoolean("LOAD_ISOLATE_ERRORS", false);
+    private static final int LOAD_COMMIT_ROWS = getInt("LOAD_COMMIT_ROWS", 0);
+    private static final int LOAD_COMMIT_SECONDS = getInt("LOAD_COMMIT_SECONDS", 0);
+    private static final boolean CHUNKED_COMMITS = LOAD_COMMIT_ROWS > 0 || LOAD_COMMIT_SECONDS > 0;
+    private static final int LOAD_PARALLELISM = getInt("LOAD_PARALLELISM", 1);
+    private static final int LOAD_QUEUE_CAPACITY = getInt("LOAD_QUEUE_CAPACITY", 4);
+    private static final PartitionKey LOAD_PARTITION_KEY =
+            PartitionKey.fromString(getString("LOAD_PARTITION_KEY", "station"));
+
+    private static final LoadStrategy<List<TypeMilieu>> TYPE_MILIEU_LOADER = strategyFor(TYPE_MILIEU);
+    private static final LoadStrategy<List<Municipalite>> MUNICIPALITE_LOADER = strategyFor(MUNICIPALITE);
+    private static final LoadStrategy<List<Station>> STATION_LOADER = strategyFor(STATION);
+    private static final LoadStrategy<List<Polluant>> POLLUANT_LOADER = strategyFor(POLLUANT);
+    private static final LoadStrategy<MesureBatch> MESURE_LOADER =
+            MESURE.strategy(LOAD_MODE == LoadMode.COPY ? LoadMode.BATCH : LOAD_MODE);
+
     private DataLoader() { /* no instantiation */ }
 
+    /** {@code LOAD_MODE_<TABLE>} for a dimension table: {@code batch} (default) or {@code unnest}. */
+    private static <S> LoadStrategy<S> strategyFor(UpsertTable<S> table) {
+        String key = "LOAD_MODE_" + table.getName().toUpperCase(Locale.ROOT);
+        LoadMode mode = LoadMode.fromString(getString(key, "batch"));
+        if (mode == LoadMode.COPY) {
+            LOGGER.warning(key + "=copy is only supported for measurements; using batch");
+            mode = LoadMode.BATCH;
+        }
+        return table.strategy(mode);
+    }
+
     public static void loadAll(CsvData data) {
-        LOGGER.info("Starting database load process");
+        LOGGER.info("Starting database load process (load mode " + LOAD_MODE + ")");
+
+        if (LOAD_PARALLELISM > 1) {
+            loadInParallel(data, Stream.of(data.getMeasures()));
+            return;
+        }
+
+        if (CHUNKED_COMMITS) {
+            loadWithChunkedCommits(data, Stream.of(data.getMeasures()));
+            return;
+        }
 
+        ensurePartitions(data);
         DatabaseUtil.runTransaction(connection -> {
-            insertTypeMilieux(connection, data.getTypeMilieux());
-            insertMunicipalites(connection, data.getMunicipalites());
-            insertStations(connection, data.getStations());
-            insertPolluants(connection, data.getPollutants());
+            insertDimensions(connection, data);
             insertMesures(connection, data.getMeasures());
 
             LOGGER.info("Database load completed successfully");
         });
     }
 
-    private static void insertTypeMilieux(Connection conn, List<TypeMilieu> typeMilieux) throws SQLException {
-        LOGGER.info(() -> "Inserting " + typeMilieux.size() + " environment types");
+    public static void loadStreaming(CsvData dimensions, Stream<MesureBatch> measureChunks) {
+        LOGGER.info("Starting streaming database load process");
+
+        if (LOAD_PARALLELISM > 1) {
+            loadInParallel(dimensions, measureChunks);
+            return;
+        }
+
+        if (CHUNKED_COMMITS) {
+            loadWithChunkedCommits(dimensions, measureChunks);
+            return;
+        }
+
+        ensurePartitions(dimensions);
+        DatabaseUtil.runTransaction(connection -> {
+            insertDimensions(connection, dimensions);
 
-        var sql = """
-            INSERT INTO type_milieu
-              (type_milieu_id, nom)
-            VALUES (?, ?)
-            ON CONFLICT (type_milieu_id) DO UPDATE
-            SET nom = EXCLUDED.nom
-            """;
-
-        executeBatch(conn, sql, typeMilieux.size(), ps -> {
-            for (TypeMilieu t : typeMilieux) {
-                setOrNull(ps, 1, t.getTypeMilieuId(), Types.INTEGER);
-                setOrNull(ps, 2, t.getNom(), Types.VARCHAR);
-                ps.addBatch();
+            long loaded = 0;
+            try (measureChunks) {
+                for (MesureBatch chunk : (Iterable<MesureBatch>) measureChunks::iterator) {
+                    insertMesures(connection, chunk);
+                    loaded += chunk.size();
+                }
             }
+
+            LOGGER.info("Streaming database load completed successfully: " + loaded + " measures");
         });
     }
 
-    private static void insertMunicipalites(Connection conn, List<Municipalite> municipalites) throws SQLException {
-        LOGGER.info(() -> "Inserting " + municipalites.size() + " municipalities");
+    /** Upserts the dimension tables in their own transaction, before any measurement is sent. */
+    public static void loadDimensions(CsvData dimensions) {
+        ensurePartitions(dimensions);
+        DatabaseUtil.runTransaction(connection -> insertDimensions(connection, dimensions));
+        LOGGER.info("Dimensions committed");
+    }
+
+    private static void loadWithChunkedCommits(CsvData dimensions, Stream<MesureBatch> measureChunks) {
+        LOGGER.info(() -> String.format(
+                "Chunked commits enabled: every %d rows / %d seconds, batches of %d rows",
+                LOAD_COMMIT_ROWS, LOAD_COMMIT_SECONDS, LOAD_BATCH_SIZE));
+
+        loadDimensions(dimensions);
+
+        ChunkedCommitter committer = new ChunkedCommitter(
+                "Measures", LOAD_COMMIT_ROWS, Duration.ofSeconds(LOAD_COMMIT_SECONDS));
+        try {
+            DatabaseUtil.runTransaction(connection -> {
+                try (measureChunks) {
+                    for (MesureBatch chunk : (Iterable<MesureBatch>) measureChunks::iterator) {
+                        insertInCommittedBatches(connection, chunk, committer, true);
+                    }
+                }
+                committer.finish(connection);
+            });
+        } catch (RuntimeException e) {
+            LOGGER.severe(() -> String.format(
+                    "Chunked load failed after %d committed rows (%d commits); uncommitted rows were rolled back",
+                    committer.getCommittedRows(), committer.getBoundaries().size()));
+            throw e;
+        }
+
+        committer.logSummary();
+    }
+
+    private static void loadInParallel(CsvData dimensions, Stream<MesureBatch> measureChunks) {
+        loadDimensions(dimensions);
 
-        var sql = """
-            INSERT INTO municipalite
-              (municipalite_id, nom)
-            VALUES (?, ?)
-            ON CONFLICT (municipalite_id) DO UPDATE
-            SET nom = EXCLUDED.nom
-            """;
-
-        executeBatch(conn, sql, municipalites.size(), ps -> {
-            for (Municipalite m : municipalites) {
-                setOrNull(ps, 1, m.getMunicipaliteId(), Types.INTEGER);
-                setOrNull(ps, 2, m.getNom(), Types.VARCHAR);
-                ps.addBatch();
+        new ParallelMesureLoader(LOAD_PARALLELISM, LOAD_QUEUE_CAPACITY, LOAD_PARTITION_KEY)
+                .load(measureChunks, DataLoader::loadPartition);
+    }
+
+    /**
+     * Loads the batches of one partition on a pooled connection, committing as configured by
+     * {@code LOAD_COMMIT_ROWS} / {@code LOAD_COMMIT_SECONDS} or once at the end.
+     */
+    public static long loadPartition(int partition, Iterator<MesureBatch> batches) {
+        ChunkedCommitter committer = new ChunkedCommitter(
+                "Partition " + partition, LOAD_COMMIT_ROWS, Duration.ofSeconds(LOAD_COMMIT_SECONDS));
+
+        DatabaseUtil.runTransaction(connection -> {
+            while (batches.hasNext()) {
+                insertInCommittedBatches(connection, batches.next(), committer, false);
             }
+            committer.finish(connection);
         });
+
+        committer.logSummary();
+        return committer.getCommittedRows();
+    }
+
+    private static void insertInCommittedBatches(
+            Connection conn, MesureBatch chunk, ChunkedCommitter committer, boolean soleLoader) throws SQLException {
+        int from = 0;
+        while (from < chunk.size()) {
+            int to = Math.min(chunk.size(), from + committer.nextBatchSize(LOAD_BATCH_SIZE));
+            insertMesures(conn, from == 0 && to == chunk.size() ? chunk : chunk.slice(from, to), soleLoader);
+            committer.afterBatch(conn, to - from);
+            from = to;
+        }
+    }
+
+    static void insertDimensions(Connection conn, CsvData data) throws SQLException {
+        insertTypeMilieux(conn, data.getTypeMilieux());
+        insertMunicipalites(conn, data.getMunicipalites());
+        insertStations(conn, data.getStations());
+        insertPolluants(conn, data.getPollutants());
+        DimensionLookup.refresh(conn);
+    }
+
+    /**
+     * Creates the partitions for the dates of {@code data} and commits them before the load's
+     * transaction, which would otherwise hold {@code mesure} exclusively until the load ends.
+     */
+    private static void ensurePartitions(CsvData data) {
+        PartitionManager.ensureRange(data.getFirstEpochDay(), data.getLastEpochDay());
+    }
+
+    private static void insertTypeMilieux(Connection conn, List<TypeMilieu> typeMilieux) throws SQLException {
+        LOGGER.info(() -> "Inserting " + typeMilieux.size() + " environment types");
+        TYPE_MILIEU_LOADER.load(conn, TYPE_MILIEU.getName(), typeMilieux);
+    }
+
+    private static void insertMunicipalites(Connection conn, List<Municipalite> municipalites) throws SQLException {
+        LOGGER.info(() -> "Inserting " + municipalites.size() + " municipalities");
+        MUNICIPALITE_LOADER.load(conn, MUNICIPALITE.getName(), municipalites);
     }
 
     private static void insertStations(Connection conn, List<Station> stations) throws SQLException {
         LOGGER.info(() -> "Inserting " + stations.size() + " stations");
-
-        var sql = """
-            INSERT INTO station
-              (station_id, adresse, latitude, longitude, x_coord, y_coord, date_ouverture, date_fermeture, municipalite_id, type_milieu_id)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-            ON CONFLICT (station_id) DO UPDATE
-            SET adresse = EXCLUDED.adresse,
-                latitude = EXCLUDED.latitude,
-                longitude = EXCLUDED.longitude,
-                x_coord = EXCLUDED.x_coord,
-                y_coord = EXCLUDED.y_coord,
-                date_ouverture = EXCLUDED.date_ouverture,
-                date_fermeture = EXCLUDED.date_fermeture,
-                municipalite_id = EXCLUDED.municipalite_id,
-                type_milieu_id = EXCLUDED.type_milieu_id
-            """;
-
-        executeBatch(conn, sql, stations.size(), ps -> {
-            for (Station s : stations) {
-                setOrNull(ps, 1, s.getStationId(), Types.INTEGER);
-                setOrNull(ps, 2, s.getAdresse(), Types.VARCHAR);
-                setOrNull(ps, 3, s.getLatitude(), Types.DOUBLE);
-                setOrNull(ps, 4, s.getLongitude(), Types.DOUBLE);
-                setOrNull(ps, 5, s.getXCoord(), Types.DOUBLE);
-                setOrNull(ps, 6, s.getYCoord(), Types.DOUBLE);
-                setOrNull(ps, 7, s.getDateOuverture(), Types.DATE);
-                setOrNull(ps, 8, s.getDateFermeture(), Types.DATE);
-                setOrNull(ps, 9, s.getMunicipaliteId(), Types.INTEGER);
-                setOrNull(ps, 10, s.getTypeMilieuId(), Types.INTEGER);
-                ps.addBatch();
-            }
-        });
+        STATION_LOADER.load(conn, STATION.getName(), stations);
+        ReadCache.stationsWritten(conn, stations);
     }
 
     private static void insertPolluants(Connection conn, List<Polluant> pollutants) throws SQLException {
         LOGGER.info(() -> "Inserting " + pollutants.size() + " pollutants");
+        POLLUANT_LOADER.load(conn, POLLUANT.getName(), pollutants);
+    }
 
-        var sql = """
-            INSERT INTO polluant
-              (code_polluant, description)
-            VALUES (?, ?)
-            ON CONFLICT (code_polluant) DO UPDATE
-            SET description = EXCLUDED.description
-            """;
-
-        executeBatch(conn, sql, pollutants.size(), ps -> {
-            for (Polluant p : pollutants) {
-                setOrNull(ps, 1, p.getCodePolluant(), Types.VARCHAR);
-                setOrNull(ps, 2, p.getDescription(), Types.VARCHAR);
-                ps.addBatch();
-            }
-        });
+    static void insertMesures(Connection conn, MesureBatch batch) throws SQLException {
+        insertMesures(conn, batch, true);
     }
 
-    private static void insertMesures(Connection conn, List<Mesure> measures) throws SQLException {
+    /**
+     * {@code soleLoader}: no other connection writes measurements, so a partition the dimensions
+     * did not cover can be created on {@code conn}; partition loaders must not lock {@code mesure}.
+     */
+    private static void insertMesures(Connection conn, MesureBatch batch, boolean soleLoader) throws SQLException {
+        MesureBatch measures = DimensionLookup.admit(conn, batch);
+        if (measures.isEmpty()) {
+            return;
+        }
         LOGGER.info(() -> "Inserting " + measures.size() + " measures");
 
-        var sql = """
-            INSERT INTO mesure
-              (station_id, date, heure, code_polluant, valeur)
-            VALUES (?, ?, ?, ?, ?)
-            ON CONFLICT (station_id, date, heure) DO UPDATE
-            SET code_polluant = EXCLUDED.code_polluant,
-                valeur = EXCLUDED.valeur
-            """;
-
-        executeBatch(conn, sql, measures.size(), ps -> {
-            for (Mesure m : measures) {
-                setOrNull(ps, 1, m.getStationId(), Types.INTEGER);
-                setOrNull(ps, 2, m.getDate(), Types.DATE);
-                setOrNull(ps, 3, m.getHeure(), Types.SMALLINT);
-                setOrNull(ps, 4, m.getCodePolluant(), Types.VARCHAR);
-                setOrNull(ps, 5, m.getValeur(), Types.INTEGER);
-                ps.addBatch();
+        if (PartitionManager.isPartitioned(conn)) {
+            if (soleLoader) {
+                PartitionManager.ensureKnown(conn, measures);
+            } else {
+                PartitionManager.ensureKnown(measures);
             }
-        });
-    }
-
-    @FunctionalInterface
-    private interface BatchOperation {
-        void execute(PreparedStatement ps) throws SQLException;
-    }
+        }
 
-    private static void executeBatch(Connection conn, String sql, int batchSize, BatchOperation operation)
-            throws SQLException {
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            operation.execute(ps);
-            int[] results = ps.executeBatch();
-            logBatchResults(batchSize, results);
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error executing batch operation", e);
-            throw e;
+        MesureBatch written = measures;
+        if (LOAD_ISOLATE_ERRORS) {
+            written = SavepointBisector.write(conn, measures, DataLoader::writeMesures);
+        } else {
+            writeMesures(conn, measures);
         }
-    }
 
-    private static void logBatchResults(int expectedSize, int[] results) {
-        int successCount = (int) Arrays.stream(results).filter(result -> result >= 0 || result == Statement.SUCCESS_NO_INFO).count();
+        RollupMaintainer.refresh(conn, written);
+        ReadCache.measuresWritten(conn, written);
+    }
 
-        LOGGER.info(() -> String.format("Batch execution completed: %d/%d successful operations",
-                successCount, expectedSize));
+    private static void writeMesures(Connection conn, MesureBatch measures) throws SQLException {
+        if (LOAD_MODE == LoadMode.COPY) {
+            MesureCopyLoader.load(conn, measures);
+        } else if (!PartitionManager.isPartitioned(conn)) {
+            MESURE_LOADER.load(conn, PartitionManager.PARENT_TABLE, measures);
+        } else {
+            for (var part : PartitionManager.split(measures).entrySet()) {
+                MESURE_LOADER.load(conn, part.getKey(), part.getValue());
+            }
+        }
     }
 }
@@ -1,31 +1,247 @@
 package Etl;
 
+import Etl.Extractors.MesureExtractor;
+import Etl.Extractors.StationExtractor;
+import Etl.Pipeline.PipelineExecutor;
+import Etl.State.RejectedMeasures;
+import Etl.State.RowFingerprints;
+import Etl.State.StationWatermarks;
+import Models.Etl.Dto.RunReport;
 import Models.Etl.Extractors.Dto.CsvData;
+import Models.MesureBatch;
+import Utils.Database.DataSourceWrapper;
 import Utils.Logging.LoggingUtil;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static Utils.Env.EnvUtil.getBoolean;
+import static Utils.Env.EnvUtil.getInt;
 
 public final class EtlRunner {
     private static final Logger LOGGER = LoggingUtil.getLogger(EtlRunner.class);
 
+    private static final boolean STREAMING = getBoolean("ETL_STREAMING", false);
+    private static final boolean PIPELINE = getBoolean("ETL_PIPELINE", false);
+    private static final int PIPELINE_EXTRACT_THREADS = getInt("PIPELINE_EXTRACT_THREADS", 1);
+    private static final int PIPELINE_TRANSFORM_THREADS = getInt("PIPELINE_TRANSFORM_THREADS", 1);
+    private static final int PIPELINE_LOAD_THREADS = getInt("PIPELINE_LOAD_THREADS", 2);
+    private static final int PIPELINE_QUEUE_CAPACITY = getInt("PIPELINE_QUEUE_CAPACITY", 4);
+    private static final boolean INCREMENTAL = getBoolean("ETL_INCREMENTAL", false);
+    private static final boolean FULL_REFRESH = getBoolean("ETL_FULL_REFRESH", false);
+    private static final boolean FINGERPRINTS = getBoolean("ETL_FINGERPRINTS", false);
+
     private EtlRunner() { /* no instances */ }
 
-    public static void start() {
-        runWithTiming(
-                EtlRunner::performEtl
-        );
+    /** Runs the ETL once over the configured files, then closes the pool. Returns false if it failed. */
+    public static boolean start() {
+        try {
+            runWithTiming(
+                    () -> run(new MesureExtractor(), loadWatermarks(), loadFingerprints())
+            );
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "ETL run failed: " + e.getMessage(), e);
+            return false;
+        } finally {
+            DataSourceWrapper.shutdown();
+        }
+    }
+
+    /**
+     * Extracts and loads one measurement source, returning what was sent and the time spent per stage.
+     * On failure the state tracked for this run is discarded and the exception is rethrown,
+     * so long-lived watermarks and fingerprints can be reused for the next run.
+     */
+    public static RunReport run(MesureExtractor source, StationWatermarks watermarks, RowFingerprints fingerprints) {
+        return run(new StationExtractor(), source, watermarks, fingerprints);
+    }
+
+    public static RunReport run(
+            StationExtractor stations,
+            MesureExtractor source,
+            StationWatermarks watermarks,
+            RowFingerprints fingerprints) {
+
+        RunReport report = new RunReport();
+        long start = System.nanoTime();
+        RejectedMeasures.open();
+        try {
+            if (PIPELINE) {
+                new PipelineExecutor(PIPELINE_EXTRACT_THREADS, PIPELINE_TRANSFORM_THREADS,
+                        PIPELINE_LOAD_THREADS, PIPELINE_QUEUE_CAPACITY)
+                        .run(stations, source, watermarks, fingerprints, report);
+            } else if (STREAMING) {
+                performStreamingEtl(stations, source, watermarks, fingerprints, report);
+            } else {
+                performEtl(stations, source, watermarks, fingerprints, report);
+            }
+
+            long saveStart = System.nanoTime();
+            MesureBatch rejected = RejectedMeasures.close();
+            watermarks.exclude(rejected);
+            fingerprints.exclude(rejected);
+            watermarks.save();
+            fingerprints.save();
+            report.setSaveStateNanos(System.nanoTime() - saveStart);
+        } catch (RuntimeException e) {
+            RejectedMeasures.close();
+            watermarks.discard();
+            fingerprints.discard();
+            throw e;
+        }
+        report.setTotalNanos(System.nanoTime() - start);
+        logStages(report);
+        return report;
     }
 
-    private static void performEtl() {
-        var data = extractAllData();
+    private static void performEtl(
+            StationExtractor stations,
+            MesureExtractor source,
+            StationWatermarks watermarks,
+            RowFingerprints fingerprints,
+            RunReport report) {
+
+        long start = System.nanoTime();
+        var data = extractAllData(stations, source, watermarks);
+        long extracted = System.nanoTime();
+        report.setExtractNanos(extracted - start);
+        report.setMeasuresExtracted(data.getMeasures().size());
         logExtractionCounts(data);
-        loadAllData(data);
+
+        var changed = fingerprints.filter(data);
+        long filtered = System.nanoTime();
+        report.setFilterNanos(filtered - extracted);
+
+        loadAllData(changed);
+        report.setLoadNanos(System.nanoTime() - filtered);
+        report.setMeasuresLoaded(changed.getMeasures().size());
     }
 
-    private static CsvData extractAllData() {
-        return DataExtractor.readAll();
+    public static StationWatermarks loadWatermarks() {
+        if (!INCREMENTAL) {
+            return StationWatermarks.disabled();
+        }
+        if (FULL_REFRESH) {
+            LOGGER.info("Full refresh requested: ignoring stored watermarks");
+            return StationWatermarks.empty();
+        }
+        return StationWatermarks.load();
+    }
+
+    public static RowFingerprints loadFingerprints() {
+        if (!FINGERPRINTS) {
+            return RowFingerprints.disabled();
+        }
+        if (FULL_REFRESH) {
+            LOGGER.info("Full refresh requested: ignoring stored row fingerprints");
+            return RowFingerprints.empty();
+        }
+        return RowFingerprints.load();
+    }
+
+    private static void performStreamingEtl(
+            StationExtractor stations,
+            MesureExtractor source,
+            StationWatermarks watermarks,
+            RowFingerprints fingerprints,
+            RunReport report) {
+
+        long start = System.nanoTime();
+        var dimensions = DataExtractor.readDimensions(stations, source);
+        long dimensionsRead = System.nanoTime();
+        logExtractionCounts(dimensions);
+        var changedDimensions = fingerprints.filter(dimensions);
+        long dimensionsFiltered = System.nanoTime();
+
+        LongAdder extracted = new LongAdder();
+        LongAdder loaded = new LongAdder();
+        LongAdder readNanos = new LongAdder();
+        LongAdder filterNanos = new LongAdder();
+        try {
+            var measures = timed(DataExtractor.streamMeasures(source, watermarks), readNanos)
+                    .peek(chunk -> extracted.add(chunk.size()));
+            if (fingerprints.isEnabled()) {
+                measures = measures
+                        .map(chunk -> {
+                            long filterStart = System.nanoTime();
+                            var changed = fingerprints.filter(chunk);
+                            filterNanos.add(System.nanoTime() - filterStart);
+                            return changed;
+                        })
+                        .filter(chunk -> !chunk.isEmpty());
+            }
+            DataLoader.loadStreaming(changedDimensions, measures.peek(chunk -> loaded.add(chunk.size())));
+            LOGGER.info("Streaming load completed successfully");
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE,
+                    "Error while streaming data into database: " + e.getMessage(), e);
+            throw e;
+        }
+
+        long streamed = System.nanoTime() - dimensionsFiltered;
+        report.setExtractNanos(dimensionsRead - start + readNanos.sum());
+        report.setFilterNanos(dimensionsFiltered - dimensionsRead + filterNanos.sum());
+        report.setLoadNanos(Math.max(0, streamed - readNanos.sum() - filterNanos.sum()));
+        report.setMeasuresExtracted(extracted.sum());
+        report.setMeasuresLoaded(loaded.sum());
+    }
+
+    /** Adds the time spent producing each element of {@code stream} to {@code nanos}. */
+    private static <T> Stream<T> timed(Stream<T> stream, LongAdder nanos) {
+        Iterator<T> source = stream.iterator();
+        Iterator<T> timedIterator = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                long start = System.nanoTime();
+                try {
+                    return source.hasNext();
+                } finally {
+                    nanos.add(System.nanoTime() - start);
+                }
+            }
+
+            @Override
+            public T next() {
+                long start = System.nanoTime();
+                try {
+                    return source.next();
+                } finally {
+                    nanos.add(System.nanoTime() - start);
+                }
+            }
+        };
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(timedIterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(stream::close);
+    }
+
+    private static CsvData extractAllData(
+            StationExtractor stations,
+            MesureExtractor source,
+            StationWatermarks watermarks) {
+        return DataExtractor.readAll(stations, source, watermarks);
+    }
+
+    private static void logStages(RunReport report) {
+        LOGGER.info(() -> String.format(
+                "Run stages: extract %d ms, change detection %d ms, load %d ms, state %d ms (%d of %d measures sent)",
+                TimeUnit.NANOSECONDS.toMillis(report.getExtractNanos()),
+                TimeUnit.NANOSECONDS.toMillis(report.getFilterNanos()),
+                TimeUnit.NANOSECONDS.toMillis(report.getLoadNanos()),
+                TimeUnit.NANOSECONDS.toMillis(report.getSaveStateNanos()),
+                report.getMeasuresLoaded(),
+                report.getMeasuresExtracted()
+        ));
     }
 
     private static void logExtractionCounts(CsvData data) {
@@ -46,7 +262,7 @@ public final class EtlRunner {
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE,
                     "Error while loading data into database: " + e.getMessage(), e);
-            System.exit(1);
+            throw e;
         }
     }
 
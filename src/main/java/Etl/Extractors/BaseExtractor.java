@@ -1,6 +1,8 @@
 package Etl.Extractors;
 
+import Models.Etl.Utils.EtlStage;
 import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
 import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
@@ -8,9 +10,15 @@ import lombok.Getter;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public abstract class BaseExtractor<T> {
 
@@ -35,6 +43,36 @@ public abstract class BaseExtractor<T> {
         }
     }
 
+    /**
+     * Lazily reads the CSV file in chunks of at most {@code chunkSize} records.
+     * Only the current chunk is held in memory; the returned stream must be closed.
+     */
+    protected Stream<List<T>> streamDataInChunks(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+
+        String filePath = getFilePath();
+        logStartExtraction(filePath);
+
+        MappingIterator<T> iterator;
+        try {
+            iterator = createMappingIterator(new CsvMapper(), CsvSchema.emptySchema().withHeader(), new File(filePath));
+        } catch (IOException e) {
+            handleExtractionError(filePath, e);
+            throw new RuntimeException("Failed to extract data from CSV: " + filePath, e);
+        }
+
+        ChunkIterator<T> chunks = new ChunkIterator<>(iterator, chunkSize);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(chunks, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(() -> {
+                    closeQuietly(filePath, iterator);
+                    logExtractionCompletion(filePath, chunks.getRecordCount());
+                });
+    }
+
     private void logStartExtraction(String filePath) {
         LOGGER.info("Reading CSV file: " + filePath);
     }
@@ -44,8 +82,11 @@ public abstract class BaseExtractor<T> {
         CsvMapper mapper = new CsvMapper();
         CsvSchema schema = CsvSchema.emptySchema().withHeader();
 
+        long start = System.nanoTime();
         MappingIterator<T> iterator = createMappingIterator(mapper, schema, csvFile);
-        return collectResults(iterator);
+        List<T> result = collectResults(iterator);
+        EtlMetrics.record(EtlStage.READ, start, result.size());
+        return result;
     }
 
     private MappingIterator<T> createMappingIterator(CsvMapper mapper, CsvSchema schema, File csvFile) throws IOException {
@@ -63,7 +104,15 @@ public abstract class BaseExtractor<T> {
         return result;
     }
 
-    private void logExtractionCompletion(String filePath, int recordCount) {
+    private void closeQuietly(String filePath, MappingIterator<T> iterator) {
+        try {
+            iterator.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error closing CSV file: " + filePath, e);
+        }
+    }
+
+    private void logExtractionCompletion(String filePath, long recordCount) {
         LOGGER.info(() -> "Extracted " + recordCount + " records from " + filePath);
     }
 
@@ -72,7 +121,40 @@ public abstract class BaseExtractor<T> {
     }
 
     protected void logProcessingError(T record, Exception ex) {
+        EtlMetrics.rejected("invalid", 1);
         LOGGER.log(Level.WARNING,
                 "Error processing record: " + record, ex);
     }
-}
\ No newline at end of file
+
+    private static final class ChunkIterator<T> implements Iterator<List<T>> {
+        private final MappingIterator<T> source;
+        private final int chunkSize;
+        @Getter
+        private long recordCount;
+
+        private ChunkIterator(MappingIterator<T> source, int chunkSize) {
+            this.source = source;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return source.hasNext();
+        }
+
+        @Override
+        public List<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long start = System.nanoTime();
+            List<T> chunk = new ArrayList<>(chunkSize);
+            while (chunk.size() < chunkSize && source.hasNext()) {
+                chunk.add(source.next());
+            }
+            recordCount += chunk.size();
+            EtlMetrics.record(EtlStage.READ, start, chunk.size());
+            return chunk;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package Etl.Extractors;
+
+import Models.Etl.Utils.PolluantType;
+import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
+import Utils.Parsing.CsvByteReader;
+import lombok.Getter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Allocation-light reader for the RSQA measurement layout
+ * ({@code stationId,adresse,latitude,longitude,X,Y,polluant,valeur,date,heure}).
+ * Numeric and date columns are decoded straight from the mapped bytes; text columns
+ * are only decoded on demand.
+ */
+public final class MesureCsvParser implements Closeable {
+
+    private static final Logger LOGGER = LoggingUtil.getLogger(MesureCsvParser.class);
+
+    private static final String[] REQUIRED_COLUMNS = {
+            "stationId", "adresse", "latitude", "longitude", "X", "Y", "polluant", "valeur", "date", "heure"
+    };
+
+    private final CsvByteReader reader;
+    private final int stationIdCol;
+    private final int adresseCol;
+    private final int latitudeCol;
+    private final int longitudeCol;
+    private final int xCol;
+    private final int yCol;
+    private final int polluantCol;
+    private final int valeurCol;
+    private final int dateCol;
+    private final int heureCol;
+    private final int minFieldCount;
+
+    private final List<byte[]> pollutantBytes = new ArrayList<>();
+    private final List<String> pollutantCodes = new ArrayList<>();
+    private final List<PolluantType> pollutantTypes = new ArrayList<>();
+
+    private int stationId;
+    private String codePolluant;
+    private PolluantType polluantType;
+    private int valeur;
+    private int epochDay;
+    private int heure;
+
+    private int cachedEpochDay = CsvByteReader.NO_DATE;
+    private LocalDate cachedDate;
+
+    @Getter
+    private long rowCount;
+    @Getter
+    private long rejectedCount;
+
+    private MesureCsvParser(CsvByteReader reader, Map<String, Integer> columns) {
+        this.reader = reader;
+        this.stationIdCol = columns.get("stationId");
+        this.adresseCol = columns.get("adresse");
+        this.latitudeCol = columns.get("latitude");
+        this.longitudeCol = columns.get("longitude");
+        this.xCol = columns.get("X");
+        this.yCol = columns.get("Y");
+        this.polluantCol = columns.get("polluant");
+        this.valeurCol = columns.get("valeur");
+        this.dateCol = columns.get("date");
+        this.heureCol = columns.get("heure");
+        this.minFieldCount = columns.values().stream().mapToInt(Integer::intValue).max().orElse(0) + 1;
+    }
+
+    public static MesureCsvParser open(Path path) throws IOException {
+        CsvByteReader reader = new CsvByteReader(path);
+        try {
+            return new MesureCsvParser(reader, readHeader(reader, path));
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    public static MesureCsvParser open(Path path, long startOffset, long endOffset) throws IOException {
+        Map<String, Integer> columns;
+        long dataOffset;
+        try (CsvByteReader header = new CsvByteReader(path)) {
+            columns = readHeader(header, path);
+            dataOffset = header.getPosition();
+        }
+        return new MesureCsvParser(new CsvByteReader(path, Math.max(startOffset, dataOffset), endOffset), columns);
+    }
+
+    public static long dataOffset(Path path) throws IOException {
+        try (CsvByteReader header = new CsvByteReader(path)) {
+            readHeader(header, path);
+            return header.getPosition();
+        }
+    }
+
+    private static Map<String, Integer> readHeader(CsvByteReader header, Path path) throws IOException {
+        if (!header.nextRow()) {
+            throw new IOException("Missing CSV header in " + path);
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.getFieldCount(); i++) {
+            columns.putIfAbsent(header.getString(i).trim(), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IOException("Unsupported measurement layout in " + path + ": missing column " + required);
+            }
+        }
+        columns.keySet().retainAll(List.of(REQUIRED_COLUMNS));
+        return columns;
+    }
+
+    public boolean next() throws IOException {
+        while (reader.nextRow()) {
+            if (parseCurrentRow()) {
+                rowCount++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean parseCurrentRow() {
+        if (reader.getFieldCount() < minFieldCount) {
+            reject("expected " + minFieldCount + " fields but found " + reader.getFieldCount(), null);
+            return false;
+        }
+        try {
+            stationId = reader.parseInt(stationIdCol);
+            valeur = reader.parseInt(valeurCol);
+            heure = reader.parseInt(heureCol);
+            internPollutant();
+            epochDay = reader.parseEpochDay(dateCol);
+            if (epochDay == CsvByteReader.NO_DATE && !reader.isBlank(dateCol)) {
+                LOGGER.warning("Failed to parse date: " + reader.getString(dateCol) + ", returning null");
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            reject(e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private void internPollutant() {
+        for (int i = 0; i < pollutantBytes.size(); i++) {
+            if (reader.fieldEquals(polluantCol, pollutantBytes.get(i))) {
+                codePolluant = pollutantCodes.get(i);
+                polluantType = pollutantTypes.get(i);
+                return;
+            }
+        }
+        codePolluant = reader.getString(polluantCol);
+        polluantType = PolluantType.fromCode(codePolluant);
+        pollutantBytes.add(codePolluant.getBytes(StandardCharsets.UTF_8));
+        pollutantCodes.add(codePolluant);
+        pollutantTypes.add(polluantType);
+    }
+
+    private void reject(String reason, Exception e) {
+        rejectedCount++;
+        EtlMetrics.rejected("malformed", 1);
+        LOGGER.log(Level.WARNING, "Skipping malformed measurement row at offset " + reader.getRowOffset() + ": " + reason, e);
+    }
+
+    public int getStationId() {
+        return stationId;
+    }
+
+    public String getCodePolluant() {
+        return codePolluant;
+    }
+
+    public PolluantType getPolluantType() {
+        return polluantType;
+    }
+
+    public int getValeur() {
+        return valeur;
+    }
+
+    public int getHeure() {
+        return heure;
+    }
+
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    public LocalDate getDate() {
+        if (epochDay == CsvByteReader.NO_DATE) {
+            return null;
+        }
+        if (epochDay != cachedEpochDay) {
+            cachedEpochDay = epochDay;
+            cachedDate = LocalDate.ofEpochDay(epochDay);
+        }
+        return cachedDate;
+    }
+
+    public String getAdresse() {
+        return reader.getString(adresseCol);
+    }
+
+    public double getLatitude() {
+        return reader.parseDouble(latitudeCol);
+    }
+
+    public double getLongitude() {
+        return reader.parseDouble(longitudeCol);
+    }
+
+    public double getXCoord() {
+        return reader.parseDouble(xCol);
+    }
+
+    public double getYCoord() {
+        return reader.parseDouble(yCol);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
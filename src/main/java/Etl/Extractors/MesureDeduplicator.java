@@ -0,0 +1,61 @@
+package Etl.Extractors;
+
+import Models.Etl.Utils.EtlStage;
+import Models.MesureBatch;
+import Utils.Collections.LongLongHashMap;
+import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
+import Utils.Time.EpochDayUtil;
+import java.util.logging.Logger;
+
+import static Utils.Env.EnvUtil.getBoolean;
+
+/**
+ * Collapses the rows of a batch that share the primary key of {@code mesure}, (station, date,
+ * heure), keeping the last one as the upsert would. Overlapping drops and corrected
+ * re-publications repeat keys; dropping the earlier copies here costs a hash probe per row
+ * instead of sending them for {@code ON CONFLICT} to overwrite. The key is
+ * {@link MesureBatch#getKey} and the map holds, per key, the index of its last row. The
+ * pollutant is not part of the key: the table keeps one value per station and hour.
+ * Rows without a date are left alone, the database rejects them anyway.
+ */
+public final class MesureDeduplicator {
+    private static final Logger LOGGER = LoggingUtil.getLogger(MesureDeduplicator.class);
+
+    private static final boolean ETL_DEDUPLICATE = getBoolean("ETL_DEDUPLICATE", true);
+
+    private MesureDeduplicator() { /* no instantiation */ }
+
+    /** The last row of each key, in file order; {@code measures} itself when no key repeats. */
+    public static MesureBatch deduplicate(MesureBatch measures) {
+        if (!ETL_DEDUPLICATE || measures.size() < 2) {
+            return measures;
+        }
+        long start = System.nanoTime();
+        LongLongHashMap lastRow = new LongLongHashMap(measures.size());
+        int undated = 0;
+        for (int i = 0; i < measures.size(); i++) {
+            if (measures.getEpochDay(i) == EpochDayUtil.NO_DATE) {
+                undated++;
+            } else {
+                lastRow.put(measures.getKey(i), i);
+            }
+        }
+        int duplicates = measures.size() - undated - lastRow.size();
+        if (duplicates == 0) {
+            EtlMetrics.record(EtlStage.TRANSFORM, start, measures.size());
+            return measures;
+        }
+
+        MesureBatch kept = new MesureBatch(measures.size() - duplicates);
+        for (int i = 0; i < measures.size(); i++) {
+            if (measures.getEpochDay(i) == EpochDayUtil.NO_DATE || lastRow.get(measures.getKey(i), -1) == i) {
+                kept.addFrom(measures, i);
+            }
+        }
+        EtlMetrics.record(EtlStage.TRANSFORM, start, measures.size());
+        EtlMetrics.duplicates(duplicates);
+        LOGGER.fine(() -> String.format("Collapsed %d duplicate measures out of %d", duplicates, measures.size()));
+        return kept;
+    }
+}
@@ -2,16 +2,29 @@ package Etl.Extractors;
 
 import Models.Etl.Extractors.Csv.MesureCsvModel;
 import Models.Etl.Extractors.Dto.MesureData;
+import Models.Etl.Utils.EtlStage;
 import Models.Etl.Utils.PolluantType;
-import Models.Mesure;
+import Models.MesureBatch;
 import Models.Polluant;
 import Models.Station;
 import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
+import Utils.Time.EpochDayUtil;
 import lombok.Getter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import static Utils.Env.EnvUtil.getInt;
+import static Utils.Env.EnvUtil.getString;
 import static Utils.Parsing.ParsingUtil.parseDateOrNull;
+import static Utils.Time.EpochDayUtil.toEpochDay;
 
 public class MesureExtractor extends BaseExtractor<MesureCsvModel> {
 
@@ -19,11 +32,46 @@ public class MesureExtractor extends BaseExtractor<MesureCsvModel> {
     private static final Logger LOGGER = LoggingUtil.getLogger(MesureExtractor.class);
 
     @Getter
-    private static final String CSV_FILE_PATH = "data/rsqa-indice-qualite-air-station.csv";
+    private static final String CSV_FILE_PATH = getString("MESURE_CSV_PATH", "data/rsqa-indice-qualite-air-station.csv");
+
+    private static final boolean FAST_PARSER = !"jackson".equalsIgnoreCase(getString("MESURE_PARSER", "fast"));
+    private static final int EXTRACT_PARALLELISM = getInt("EXTRACT_PARALLELISM", 1);
+    private static final long EXTRACT_RANGE_BYTES = getInt("EXTRACT_RANGE_BYTES", 8 * 1024 * 1024);
+
+    private final Path path;
+    private final long startOffset;
+    private final long endOffset;
+
+    public MesureExtractor() {
+        this(Path.of(CSV_FILE_PATH));
+    }
+
+    public MesureExtractor(Path path) {
+        this(path, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reads only the rows starting in [startOffset, endOffset) of {@code path}, e.g. the part
+     * appended since the previous run. Ranges need the byte parser; Jackson reads the whole file.
+     */
+    public MesureExtractor(Path path, long startOffset, long endOffset) {
+        this.path = path;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    /** True when reading starts after the beginning of the file, so earlier rows are not seen. */
+    public boolean isPartial() {
+        return startOffset > 0;
+    }
+
+    private boolean isRanged() {
+        return startOffset > 0 || endOffset != Long.MAX_VALUE;
+    }
 
     @Override
     protected String getFilePath() {
-        return CSV_FILE_PATH;
+        return path.toString();
     }
 
     @Override
@@ -32,24 +80,339 @@ public class MesureExtractor extends BaseExtractor<MesureCsvModel> {
     }
 
     public MesureData extract() {
+        if (useParallelParser()) {
+            return readInParallel(true);
+        }
+
+        MesureCsvParser parser = openFastParser();
+        if (parser != null) {
+            return readWithParser(parser, true);
+        }
+
         List<MesureCsvModel> csvModels = extractData();
         return processMesureData(csvModels);
     }
 
+    public MesureData extractDimensions(int chunkSize) {
+        if (useParallelParser()) {
+            return readInParallel(false);
+        }
+
+        MesureCsvParser parser = openFastParser();
+        if (parser != null) {
+            return readWithParser(parser, false);
+        }
+
+        Map<Integer, Station> stationMap = new LinkedHashMap<>();
+        Map<PolluantType, Polluant> pollutantMap = new EnumMap<>(PolluantType.class);
+        int[] dateRange = {EpochDayUtil.NO_DATE, EpochDayUtil.NO_DATE};
+
+        try (Stream<List<MesureCsvModel>> chunks = streamDataInChunks(chunkSize)) {
+            chunks.forEach(chunk -> {
+                for (MesureCsvModel model : chunk) {
+                    try {
+                        collectDimensions(model, stationMap, pollutantMap);
+                        widen(dateRange, toEpochDay(parseDateOrNull(model.getDate())));
+                    } catch (Exception ex) {
+                        logProcessingError(model, ex);
+                    }
+                }
+            });
+        }
+
+        logProcessedDataSummary(stationMap.size(), pollutantMap.size(), 0);
+
+        return MesureData.builder()
+                .stations(new ArrayList<>(stationMap.values()))
+                .pollutants(new ArrayList<>(pollutantMap.values()))
+                .firstEpochDay(dateRange[0])
+                .lastEpochDay(dateRange[1])
+                .build();
+    }
+
+    public Stream<MesureBatch> streamMeasures(int chunkSize) {
+        return streamMeasures(chunkSize, EXTRACT_PARALLELISM);
+    }
+
+    /** Like {@link #streamMeasures(int)}, parsing on {@code parallelism} threads instead of {@code EXTRACT_PARALLELISM}. */
+    public Stream<MesureBatch> streamMeasures(int chunkSize, int parallelism) {
+        if (useParallelParser(parallelism)) {
+            return new ParallelMesureReader(path, parallelism, EXTRACT_RANGE_BYTES)
+                    .map(this::readRangeMeasures)
+                    .flatMap(measures -> splitIntoChunks(measures, chunkSize));
+        }
+
+        MesureCsvParser parser = openFastParser();
+        if (parser != null) {
+            return streamWithParser(parser, chunkSize);
+        }
+
+        return streamDataInChunks(chunkSize).map(this::buildMesureChunk);
+    }
+
+    private MesureCsvParser openFastParser() {
+        if (!FAST_PARSER) {
+            warnIfRangeIgnored();
+            return null;
+        }
+        try {
+            MesureCsvParser parser = isRanged()
+                    ? MesureCsvParser.open(path, startOffset, endOffset)
+                    : MesureCsvParser.open(path);
+            LOGGER.info("Reading CSV file with byte parser: " + getFilePath()
+                    + (isRanged() ? " [" + startOffset + ", " + endOffset + ")" : ""));
+            return parser;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Byte parser unavailable for " + getFilePath() + ", falling back to Jackson", e);
+            warnIfRangeIgnored();
+            return null;
+        }
+    }
+
+    private void warnIfRangeIgnored() {
+        if (isRanged()) {
+            LOGGER.warning("Byte ranges need the byte parser; reading all of " + getFilePath());
+        }
+    }
+
+    private boolean useParallelParser() {
+        return useParallelParser(EXTRACT_PARALLELISM);
+    }
+
+    private boolean useParallelParser(int parallelism) {
+        if (!FAST_PARSER || parallelism <= 1 || isRanged()) {
+            return false;
+        }
+        try {
+            MesureCsvParser.dataOffset(path);
+            return true;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Parallel parsing unavailable for " + getFilePath() + ", reading sequentially", e);
+            return false;
+        }
+    }
+
+    private MesureData readWithParser(MesureCsvParser parser, boolean includeMeasures) {
+        MesureData data;
+        try (parser) {
+            data = collectRange(parser, includeMeasures);
+            logParserCompletion(parser);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error reading CSV file: " + getFilePath(), e);
+            throw new RuntimeException("Failed to extract data from CSV: " + getFilePath(), e);
+        }
+
+        logProcessedDataSummary(data.getStations().size(), data.getPollutants().size(), data.getMeasures().size());
+        return data;
+    }
+
+    private MesureData readInParallel(boolean includeMeasures) {
+        List<MesureData> rangeResults = new ParallelMesureReader(path, EXTRACT_PARALLELISM, EXTRACT_RANGE_BYTES)
+                .mapAll(parser -> collectRange(parser, includeMeasures));
+
+        Map<Integer, Station> stationMap = new LinkedHashMap<>();
+        Map<PolluantType, Polluant> pollutantMap = new EnumMap<>(PolluantType.class);
+        MesureBatch measures = new MesureBatch(rangeResults.stream().mapToInt(r -> r.getMeasures().size()).sum());
+        int[] dateRange = {EpochDayUtil.NO_DATE, EpochDayUtil.NO_DATE};
+
+        for (MesureData range : rangeResults) {
+            widen(dateRange, range.getFirstEpochDay());
+            widen(dateRange, range.getLastEpochDay());
+            range.getStations().forEach(station -> stationMap.putIfAbsent(station.getStationId(), station));
+            range.getPollutants().forEach(pollutant ->
+                    pollutantMap.putIfAbsent(PolluantType.fromCode(pollutant.getCodePolluant()), pollutant));
+            measures.addAll(range.getMeasures());
+        }
+
+        logProcessedDataSummary(stationMap.size(), pollutantMap.size(), measures.size());
+
+        return MesureData.builder()
+                .stations(new ArrayList<>(stationMap.values()))
+                .pollutants(new ArrayList<>(pollutantMap.values()))
+                .measures(measures)
+                .firstEpochDay(dateRange[0])
+                .lastEpochDay(dateRange[1])
+                .build();
+    }
+
+    private MesureData collectRange(MesureCsvParser parser, boolean includeMeasures) throws IOException {
+        Map<Integer, Station> stationMap = new LinkedHashMap<>();
+        Map<PolluantType, Polluant> pollutantMap = new EnumMap<>(PolluantType.class);
+        MesureBatch measures = new MesureBatch(includeMeasures ? 1024 : 1);
+        int[] dateRange = {EpochDayUtil.NO_DATE, EpochDayUtil.NO_DATE};
+
+        long start = System.nanoTime();
+        long rows = parser.getRowCount();
+        while (parser.next()) {
+            try {
+                collectDimensions(parser, stationMap, pollutantMap);
+                widen(dateRange, parser.getEpochDay());
+                if (includeMeasures) {
+                    addMesureFromParser(measures, parser);
+                }
+            } catch (RuntimeException ex) {
+                logParserError(parser, ex);
+            }
+        }
+        EtlMetrics.record(EtlStage.READ, start, parser.getRowCount() - rows);
+
+        return MesureData.builder()
+                .stations(new ArrayList<>(stationMap.values()))
+                .pollutants(new ArrayList<>(pollutantMap.values()))
+                .measures(measures)
+                .firstEpochDay(dateRange[0])
+                .lastEpochDay(dateRange[1])
+                .build();
+    }
+
+    /** Extends the [first, last] epoch-day range in {@code range} to include {@code epochDay}. */
+    private static void widen(int[] range, int epochDay) {
+        if (epochDay == EpochDayUtil.NO_DATE) {
+            return;
+        }
+        if (range[0] == EpochDayUtil.NO_DATE || epochDay < range[0]) {
+            range[0] = epochDay;
+        }
+        if (range[1] == EpochDayUtil.NO_DATE || epochDay > range[1]) {
+            range[1] = epochDay;
+        }
+    }
+
+    private MesureBatch readRangeMeasures(MesureCsvParser parser) throws IOException {
+        MesureBatch measures = new MesureBatch(1024);
+        long start = System.nanoTime();
+        while (parser.next()) {
+            try {
+                addMesureFromParser(measures, parser);
+            } catch (RuntimeException ex) {
+                logParserError(parser, ex);
+            }
+        }
+        EtlMetrics.record(EtlStage.READ, start, measures.size());
+        return measures;
+    }
+
+    private static Stream<MesureBatch> splitIntoChunks(MesureBatch measures, int chunkSize) {
+        if (measures.size() <= chunkSize) {
+            return Stream.of(measures);
+        }
+        int chunkCount = (measures.size() + chunkSize - 1) / chunkSize;
+        return IntStream.range(0, chunkCount)
+                .mapToObj(i -> measures.slice(i * chunkSize, Math.min(measures.size(), (i + 1) * chunkSize)));
+    }
+
+    private Stream<MesureBatch> streamWithParser(MesureCsvParser parser, int chunkSize) {
+        Iterator<MesureBatch> chunks = new Iterator<>() {
+            private MesureBatch next = readChunk();
+
+            @Override
+            public boolean hasNext() {
+                return !next.isEmpty();
+            }
+
+            @Override
+            public MesureBatch next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                MesureBatch chunk = next;
+                next = readChunk();
+                return chunk;
+            }
+
+            private MesureBatch readChunk() {
+                MesureBatch chunk = new MesureBatch(chunkSize);
+                long start = System.nanoTime();
+                try {
+                    while (chunk.size() < chunkSize && parser.next()) {
+                        try {
+                            addMesureFromParser(chunk, parser);
+                        } catch (RuntimeException ex) {
+                            logParserError(parser, ex);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read CSV file: " + getFilePath(), e);
+                }
+                EtlMetrics.record(EtlStage.READ, start, chunk.size());
+                return chunk;
+            }
+        };
+
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(chunks, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(() -> {
+                    logParserCompletion(parser);
+                    try {
+                        parser.close();
+                    } catch (IOException e) {
+                        LOGGER.log(Level.WARNING, "Error closing CSV file: " + getFilePath(), e);
+                    }
+                });
+    }
+
+    private void collectDimensions(
+            MesureCsvParser parser,
+            Map<Integer, Station> stationMap,
+            Map<PolluantType, Polluant> pollutantMap) {
+
+        if (!stationMap.containsKey(parser.getStationId())) {
+            stationMap.put(parser.getStationId(), buildStationFromParser(parser));
+        }
+        PolluantType type = parser.getPolluantType();
+        if (!pollutantMap.containsKey(type)) {
+            pollutantMap.put(type, buildPollutant(type));
+        }
+    }
+
+    private Station buildStationFromParser(MesureCsvParser parser) {
+        return Station.builder()
+                .stationId(parser.getStationId())
+                .adresse(parser.getAdresse())
+                .latitude(parser.getLatitude())
+                .longitude(parser.getLongitude())
+                .xCoord(parser.getXCoord())
+                .yCoord(parser.getYCoord())
+                .build();
+    }
+
+    private void addMesureFromParser(MesureBatch measures, MesureCsvParser parser) {
+        measures.add(
+                parser.getStationId(),
+                parser.getEpochDay(),
+                parser.getHeure(),
+                parser.getPolluantType(),
+                parser.getValeur());
+    }
+
+    private void logParserError(MesureCsvParser parser, Exception ex) {
+        EtlMetrics.rejected("invalid", 1);
+        LOGGER.log(Level.WARNING, "Error processing measurement row for station " + parser.getStationId(), ex);
+    }
+
+    private void logParserCompletion(MesureCsvParser parser) {
+        LOGGER.info(() -> String.format("Extracted %d records from %s (%d malformed rows skipped)",
+                parser.getRowCount(), getFilePath(), parser.getRejectedCount()));
+    }
+
     private MesureData processMesureData(List<MesureCsvModel> csvModels) {
         Map<Integer, Station> stationMap = new LinkedHashMap<>();
-        Map<String, Polluant> pollutantMap = new LinkedHashMap<>();
-        List<Mesure> measures = new ArrayList<>();
+        Map<PolluantType, Polluant> pollutantMap = new EnumMap<>(PolluantType.class);
+        MesureBatch measures = new MesureBatch(csvModels.size());
+        int[] dateRange = {EpochDayUtil.NO_DATE, EpochDayUtil.NO_DATE};
 
+        long start = System.nanoTime();
         for (MesureCsvModel model : csvModels) {
             try {
-                stationMap.computeIfAbsent(model.getStationId(), id -> buildStationFromModel(model));
-                pollutantMap.computeIfAbsent(model.getCodePolluant(), code -> buildPollutantFromModel(model));
-                measures.add(buildMesureFromModel(model));
+                collectDimensions(model, stationMap, pollutantMap);
+                addMesureFromModel(measures, model);
+                widen(dateRange, measures.getEpochDay(measures.size() - 1));
             } catch (Exception ex) {
                 logProcessingError(model, ex);
             }
         }
+        EtlMetrics.record(EtlStage.PARSE, start, csvModels.size());
 
         logProcessedDataSummary(stationMap.size(), pollutantMap.size(), measures.size());
 
@@ -57,9 +420,35 @@ public class MesureExtractor extends BaseExtractor<MesureCsvModel> {
                 .stations(new ArrayList<>(stationMap.values()))
                 .pollutants(new ArrayList<>(pollutantMap.values()))
                 .measures(measures)
+                .firstEpochDay(dateRange[0])
+                .lastEpochDay(dateRange[1])
                 .build();
     }
 
+    private void collectDimensions(
+            MesureCsvModel model,
+            Map<Integer, Station> stationMap,
+            Map<PolluantType, Polluant> pollutantMap) {
+
+        stationMap.computeIfAbsent(model.getStationId(), id -> buildStationFromModel(model));
+        PolluantType type = PolluantType.fromCode(model.getCodePolluant());
+        pollutantMap.computeIfAbsent(type, this::buildPollutant);
+    }
+
+    private MesureBatch buildMesureChunk(List<MesureCsvModel> csvModels) {
+        MesureBatch measures = new MesureBatch(csvModels.size());
+        long start = System.nanoTime();
+        for (MesureCsvModel model : csvModels) {
+            try {
+                addMesureFromModel(measures, model);
+            } catch (Exception ex) {
+                logProcessingError(model, ex);
+            }
+        }
+        EtlMetrics.record(EtlStage.PARSE, start, csvModels.size());
+        return measures;
+    }
+
     private Station buildStationFromModel(MesureCsvModel model) {
         return Station.builder()
                 .stationId(model.getStationId())
@@ -71,22 +460,20 @@ public class MesureExtractor extends BaseExtractor<MesureCsvModel> {
                 .build();
     }
 
-    private Polluant buildPollutantFromModel(MesureCsvModel model) {
-        PolluantType type = PolluantType.fromCode(model.getCodePolluant());
+    private Polluant buildPollutant(PolluantType type) {
         return Polluant.builder()
                 .codePolluant(type.name())
                 .description(type.getDescription())
                 .build();
     }
 
-    private Mesure buildMesureFromModel(MesureCsvModel model) {
-        return Mesure.builder()
-                .stationId(model.getStationId())
-                .date(parseDateOrNull(model.getDate()))
-                .heure(model.getHeure())
-                .codePolluant(model.getCodePolluant())
-                .valeur(model.getValeur())
-                .build();
+    private void addMesureFromModel(MesureBatch measures, MesureCsvModel model) {
+        measures.add(
+                model.getStationId(),
+                toEpochDay(parseDateOrNull(model.getDate())),
+                model.getHeure(),
+                PolluantType.fromCode(model.getCodePolluant()),
+                model.getValeur());
     }
 
     private void logProcessedDataSummary(int stationCount, int pollutantCount, int measureCount) {
@@ -0,0 +1,133 @@
+package Etl.Extractors;
+
+import Utils.Logging.LoggingUtil;
+import Utils.Parsing.CsvRangeSplitter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parses line-aligned byte ranges of one measurement file on a fork-join pool.
+ * Results are always delivered in file order, with at most two ranges per worker in flight.
+ */
+public final class ParallelMesureReader {
+
+    private static final Logger LOGGER = LoggingUtil.getLogger(ParallelMesureReader.class);
+
+    @FunctionalInterface
+    public interface RangeTask<R> {
+        R apply(MesureCsvParser parser) throws IOException;
+    }
+
+    private final Path path;
+    private final int parallelism;
+    private final long maxRangeBytes;
+
+    public ParallelMesureReader(Path path, int parallelism, long maxRangeBytes) {
+        this.path = path;
+        this.parallelism = Math.max(1, parallelism);
+        this.maxRangeBytes = Math.max(1, maxRangeBytes);
+    }
+
+    public <R> List<R> mapAll(RangeTask<R> task) {
+        try (Stream<R> results = map(task)) {
+            return results.toList();
+        }
+    }
+
+    public <R> Stream<R> map(RangeTask<R> task) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long dataOffset = MesureCsvParser.dataOffset(path);
+            long dataLength = Files.size(path) - dataOffset;
+            int rangeCount = (int) Math.max(parallelism * 4L, Math.ceilDiv(Math.max(dataLength, 1), maxRangeBytes));
+            List<long[]> ranges = CsvRangeSplitter.split(path, dataOffset, rangeCount, pool);
+
+            LOGGER.info(() -> String.format("Parsing %s as %d ranges on %d threads", path, ranges.size(), parallelism));
+
+            OrderedResults<R> results = new OrderedResults<>(pool, ranges, task);
+            return StreamSupport.stream(
+                            Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED | Spliterator.NONNULL),
+                            false)
+                    .onClose(results::close);
+        } catch (IOException | RuntimeException e) {
+            pool.shutdownNow();
+            throw new RuntimeException("Failed to split CSV file for parallel parsing: " + path, e);
+        }
+    }
+
+    private final class OrderedResults<R> implements Iterator<R> {
+        private final ForkJoinPool pool;
+        private final List<long[]> ranges;
+        private final RangeTask<R> task;
+        private final Deque<ForkJoinTask<R>> inFlight = new ArrayDeque<>();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final long startNanos = System.nanoTime();
+        private int nextRange;
+
+        private OrderedResults(ForkJoinPool pool, List<long[]> ranges, RangeTask<R> task) {
+            this.pool = pool;
+            this.ranges = ranges;
+            this.task = task;
+            fillWindow();
+        }
+
+        private void fillWindow() {
+            while (inFlight.size() < parallelism * 2 && nextRange < ranges.size()) {
+                long[] range = ranges.get(nextRange++);
+                inFlight.addLast(pool.submit(() -> parseRange(range)));
+            }
+        }
+
+        private R parseRange(long[] range) {
+            try (MesureCsvParser parser = MesureCsvParser.open(path, range[0], range[1])) {
+                R result = task.apply(parser);
+                rows.add(parser.getRowCount());
+                rejected.add(parser.getRejectedCount());
+                return result;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to parse " + path + " bytes " + range[0] + "-" + range[1], e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !inFlight.isEmpty();
+        }
+
+        @Override
+        public R next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            R result = inFlight.removeFirst().join();
+            fillWindow();
+            return result;
+        }
+
+        private void close() {
+            inFlight.forEach(t -> t.cancel(true));
+            inFlight.clear();
+            pool.shutdownNow();
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            LOGGER.info(() -> String.format("Extracted %d records from %s in %d ms (%d malformed rows skipped)",
+                    rows.sum(), path, elapsedMillis, rejected.sum()));
+        }
+    }
+}
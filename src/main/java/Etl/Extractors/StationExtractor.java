@@ -2,13 +2,18 @@ package Etl.Extractors;
 
 import Models.Etl.Extractors.Csv.StationCsvModel;
 import Models.Etl.Extractors.Dto.StationData;
+import Models.Etl.Utils.EtlStage;
 import Models.Station;
+import Utils.Collections.IntIntHashMap;
+import Utils.Encoding.StringDictionary;
 import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
 import lombok.Getter;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
+import static Utils.Env.EnvUtil.getString;
 import static Utils.Parsing.ParsingUtil.parseDateOrNull;
 
 public class StationExtractor extends BaseExtractor<StationCsvModel> {
@@ -17,11 +22,21 @@ public class StationExtractor extends BaseExtractor<StationCsvModel> {
     private static final Logger LOGGER = LoggingUtil.getLogger(StationExtractor.class);
 
     @Getter
-    private static final String CSV_FILE_PATH = "data/rsqaq_station_1975-2024.csv";
+    private static final String CSV_FILE_PATH = getString("STATION_CSV_PATH", "data/rsqaq_station_1975-2024.csv");
+
+    private final Path path;
+
+    public StationExtractor() {
+        this(Path.of(CSV_FILE_PATH));
+    }
+
+    public StationExtractor(Path path) {
+        this.path = path;
+    }
 
     @Override
     protected String getFilePath() {
-        return CSV_FILE_PATH;
+        return path.toString();
     }
 
     @Override
@@ -36,45 +51,41 @@ public class StationExtractor extends BaseExtractor<StationCsvModel> {
 
     private StationData processStationData(List<StationCsvModel> csvModels) {
         Map<Integer, Station> stationMap = new LinkedHashMap<>();
-        Map<String, Integer> municipalityMap = new LinkedHashMap<>();
-        Map<String, Integer> typeMap = new LinkedHashMap<>();
-        Map<Integer, String> stationMunicipalites = new HashMap<>();
-        Map<Integer, String> stationTypeMilieux = new HashMap<>();
-
-        AtomicInteger nextMunicipalityId = new AtomicInteger(1);
-        AtomicInteger nextTypeId = new AtomicInteger(1);
+        StringDictionary municipalities = new StringDictionary(1);
+        StringDictionary typeMilieux = new StringDictionary(1);
+        IntIntHashMap stationMunicipalites = new IntIntHashMap(csvModels.size());
+        IntIntHashMap stationTypeMilieux = new IntIntHashMap(csvModels.size());
 
+        long start = System.nanoTime();
         for (StationCsvModel model : csvModels) {
             try {
-                String municipalityName = model.getMunicipalite();
-                String typeName = model.getTypeMilieu();
+                int municipalityId = municipalities.encode(model.getMunicipalite());
+                int typeId = typeMilieux.encode(model.getTypeMilieu());
                 int stationId = model.getStationId();
 
-                municipalityMap.computeIfAbsent(municipalityName, key -> nextMunicipalityId.getAndIncrement());
-                typeMap.computeIfAbsent(typeName, key -> nextTypeId.getAndIncrement());
-
-                stationMunicipalites.put(stationId, municipalityName);
-                stationTypeMilieux.put(stationId, typeName);
+                stationMunicipalites.put(stationId, municipalityId);
+                stationTypeMilieux.put(stationId, typeId);
 
-                Station station = buildStationFromModel(model, municipalityMap, typeMap);
+                Station station = buildStationFromModel(model, municipalityId, typeId);
                 stationMap.put(stationId, station);
             } catch (Exception ex) {
                 logProcessingError(model, ex);
             }
         }
+        EtlMetrics.record(EtlStage.PARSE, start, csvModels.size());
 
-        logProcessedDataSummary(stationMap.size(), municipalityMap.size(), typeMap.size());
+        logProcessedDataSummary(stationMap.size(), municipalities.size(), typeMilieux.size());
 
         return StationData.builder()
                 .stations(new ArrayList<>(stationMap.values()))
                 .stationMunicipalites(stationMunicipalites)
                 .stationTypeMilieux(stationTypeMilieux)
-                .municipalityIdMap(municipalityMap)
-                .typeIdMap(typeMap)
+                .municipalities(municipalities)
+                .typeMilieux(typeMilieux)
                 .build();
     }
 
-    private Station buildStationFromModel(StationCsvModel model, Map<String, Integer> municipalityMap, Map<String, Integer> typeMap) {
+    private Station buildStationFromModel(StationCsvModel model, int municipalityId, int typeId) {
         return Station.builder()
                 .stationId(model.getStationId())
                 .adresse(model.getAdresse())
@@ -82,8 +93,8 @@ public class StationExtractor extends BaseExtractor<StationCsvModel> {
                 .longitude(model.getLongitude())
                 .dateOuverture(parseDateOrNull(model.getDateOuverture()))
                 .dateFermeture(parseDateOrNull(model.getDateFermeture()))
-                .municipaliteId(municipalityMap.get(model.getMunicipalite()))
-                .typeMilieuId(typeMap.get(model.getTypeMilieu()))
+                .municipaliteId(municipalityId)
+                .typeMilieuId(typeId)
                 .build();
     }
 
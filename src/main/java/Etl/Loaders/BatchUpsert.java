@@ -0,0 +1,68 @@
+package Etl.Loaders;
+
+import Models.Etl.Utils.EtlStage;
+import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One single-row {@code INSERT ... ON CONFLICT} per row, sent as a JDBC batch. Rows are applied
+ * in order, so the last of several rows with the same key wins.
+ */
+final class BatchUpsert<S> implements LoadStrategy<S> {
+    private static final Logger LOGGER = LoggingUtil.getLogger(BatchUpsert.class);
+
+    private final UpsertTable<S> table;
+    private final Map<String, String> sqlByTable = new ConcurrentHashMap<>();
+
+    BatchUpsert(UpsertTable<S> table) {
+        this.table = table;
+    }
+
+    @Override
+    public void load(Connection conn, String target, S rows) throws SQLException {
+        int size = table.size(rows);
+        if (size == 0) {
+            return;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(sqlByTable.computeIfAbsent(target, this::sql))) {
+            long start = System.nanoTime();
+            for (int i = 0; i < size; i++) {
+                table.bind(ps, rows, i);
+                ps.addBatch();
+            }
+            EtlMetrics.record(EtlStage.BIND, start, size);
+
+            start = System.nanoTime();
+            int[] results = ps.executeBatch();
+            EtlMetrics.record(EtlStage.EXECUTE, start, size);
+            logBatchResults(size, results);
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error executing batch operation", e);
+            throw e;
+        }
+    }
+
+    private String sql(String target) {
+        String placeholders = String.join(", ", Collections.nCopies(table.columns().size(), "?"));
+        return "INSERT INTO " + target + "\n  (" + table.columnList() + ")\nVALUES (" + placeholders + ")\n"
+                + table.onConflict();
+    }
+
+    private static void logBatchResults(int expectedSize, int[] results) {
+        int successCount = (int) Arrays.stream(results).filter(result -> result >= 0 || result == Statement.SUCCESS_NO_INFO).count();
+
+        LOGGER.info(() -> String.format("Batch execution completed: %d/%d successful operations",
+                successCount, expectedSize));
+    }
+}
@@ -0,0 +1,95 @@
+package Etl.Loaders;
+
+import Models.Etl.Loaders.Dto.CommitBoundary;
+import Models.Etl.Utils.EtlStage;
+import Utils.Database.CommitHooks;
+import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
+import lombok.Getter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+public final class ChunkedCommitter {
+    private static final Logger LOGGER = LoggingUtil.getLogger(ChunkedCommitter.class);
+
+    private final String label;
+    private final long commitRows;
+    private final long commitIntervalNanos;
+    private final List<CommitBoundary> boundaries = new ArrayList<>();
+
+    private long rowsSinceCommit;
+    @Getter
+    private long committedRows;
+    private long lastCommitNanos = System.nanoTime();
+
+    public ChunkedCommitter(String label, long commitRows, Duration commitInterval) {
+        this.label = label;
+        this.commitRows = commitRows;
+        this.commitIntervalNanos = commitInterval.toNanos();
+    }
+
+    public int nextBatchSize(int maxBatchSize) {
+        if (commitRows <= 0) {
+            return maxBatchSize;
+        }
+        return (int) Math.max(1, Math.min(maxBatchSize, commitRows - rowsSinceCommit));
+    }
+
+    public void afterBatch(Connection conn, int rows) throws SQLException {
+        rowsSinceCommit += rows;
+
+        boolean rowLimitReached = commitRows > 0 && rowsSinceCommit >= commitRows;
+        boolean intervalElapsed = commitIntervalNanos > 0
+                && System.nanoTime() - lastCommitNanos >= commitIntervalNanos;
+
+        if (rowLimitReached || intervalElapsed) {
+            commit(conn);
+        }
+    }
+
+    public void finish(Connection conn) throws SQLException {
+        if (rowsSinceCommit > 0) {
+            commit(conn);
+        }
+    }
+
+    public List<CommitBoundary> getBoundaries() {
+        return Collections.unmodifiableList(boundaries);
+    }
+
+    private void commit(Connection conn) throws SQLException {
+        long commitStart = System.nanoTime();
+        conn.commit();
+        CommitHooks.committed(conn);
+
+        long now = System.nanoTime();
+        EtlMetrics.recordNanos(EtlStage.COMMIT, now - commitStart, rowsSinceCommit);
+        committedRows += rowsSinceCommit;
+        CommitBoundary boundary = CommitBoundary.builder()
+                .sequence(boundaries.size() + 1)
+                .rowsInCommit(rowsSinceCommit)
+                .totalRows(committedRows)
+                .elapsedMillis(Duration.ofNanos(now - lastCommitNanos).toMillis())
+                .build();
+        boundaries.add(boundary);
+
+        rowsSinceCommit = 0;
+        lastCommitNanos = now;
+
+        LOGGER.info(() -> String.format("%s commit #%d: %d rows (%d total) in %d ms",
+                label, boundary.getSequence(), boundary.getRowsInCommit(),
+                boundary.getTotalRows(), boundary.getElapsedMillis()));
+    }
+
+    public void logSummary() {
+        long totalMillis = boundaries.stream().mapToLong(CommitBoundary::getElapsedMillis).sum();
+        long rowsPerSecond = totalMillis > 0 ? committedRows * 1000 / totalMillis : committedRows;
+        LOGGER.info(() -> String.format("%s: %d rows committed in %d commits (%d rows/s)",
+                label, committedRows, boundaries.size(), rowsPerSecond));
+    }
+}
@@ -0,0 +1,200 @@
+package Etl.Loaders;
+
+import Etl.State.RejectedMeasures;
+import Models.Etl.Utils.EtlStage;
+import Models.Etl.Utils.PolluantType;
+import Models.MesureBatch;
+import Models.Polluant;
+import Models.Station;
+import Utils.Collections.IntHashSet;
+import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
+import Utils.Time.SqlDateCache;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import static Utils.Env.EnvUtil.getBoolean;
+
+/**
+ * Checks every measurement against the stations and pollutants of the database before it is
+ * sent, so a row without its dimension never reaches the foreign keys of {@code mesure} and
+ * rolls back the whole transaction. The known ids are kept in memory (an open-addressing int
+ * set for stations, a flag per {@link PolluantType}), so a row costs a hash probe. Orphans are
+ * written to {@code etl_orphan} with the reason, in the same transaction, or only counted when
+ * the table does not exist. Either way they are reported to {@link RejectedMeasures}, so the
+ * run does not record them as loaded and picks them up again next time.
+ * <p>
+ * The snapshot is reloaded on the loading connection each time the dimensions are upserted,
+ * and is replaced rather than modified, so the loaders of several partitions share it.
+ */
+public final class DimensionLookup {
+    private static final Logger LOGGER = LoggingUtil.getLogger(DimensionLookup.class);
+
+    private static final boolean ETL_ORPHAN_CHECK = getBoolean("ETL_ORPHAN_CHECK", true);
+
+    private static final String STATIONS_SQL = "SELECT station_id FROM station";
+    private static final String POLLUTANTS_SQL = "SELECT code_polluant FROM polluant";
+    private static final String HAS_QUARANTINE_SQL = "SELECT to_regclass('etl_orphan') IS NOT NULL";
+    private static final String QUARANTINE_SQL = """
+            INSERT INTO etl_orphan (station_id, date, heure, code_polluant, valeur, reason)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UNKNOWN_STATION = "unknown_station";
+    private static final String UNKNOWN_POLLUTANT = "unknown_pollutant";
+
+    private record Snapshot(IntHashSet stations, boolean[] pollutants) {
+        boolean knows(MesureBatch measures, int index) {
+            return stations.contains(measures.getStationId(index))
+                    && pollutants[measures.getPolluant(index).ordinal()];
+        }
+    }
+
+    private static volatile Snapshot snapshot;
+    private static volatile Boolean quarantineTable;
+
+    private DimensionLookup() { /* no instantiation */ }
+
+    /** Reloads the known stations and pollutants as {@code conn} sees them, uncommitted upserts included. */
+    public static void refresh(Connection conn) throws SQLException {
+        if (ETL_ORPHAN_CHECK) {
+            snapshot = load(conn);
+        }
+    }
+
+    /** Replaces the snapshot with these dimensions, for loaders that run without a database such as the benchmarks. */
+    public static void seed(List<Station> stations, List<Polluant> pollutants) {
+        IntHashSet stationIds = new IntHashSet();
+        stations.forEach(station -> stationIds.add(station.getStationId()));
+        Set<String> codes = new HashSet<>();
+        pollutants.forEach(pollutant -> codes.add(pollutant.getCodePolluant()));
+        snapshot = new Snapshot(stationIds, flags(codes));
+    }
+
+    /**
+     * The rows of {@code measures} whose station and pollutant exist; the others are
+     * quarantined on {@code conn}. Returns {@code measures} itself when every row is known.
+     */
+    public static MesureBatch admit(Connection conn, MesureBatch measures) throws SQLException {
+        if (!ETL_ORPHAN_CHECK || measures.isEmpty()) {
+            return measures;
+        }
+        long start = System.nanoTime();
+        Snapshot known = snapshot;
+        if (known == null) {
+            known = load(conn);
+            snapshot = known;
+        }
+
+        int firstOrphan = 0;
+        while (firstOrphan < measures.size() && known.knows(measures, firstOrphan)) {
+            firstOrphan++;
+        }
+        if (firstOrphan == measures.size()) {
+            EtlMetrics.record(EtlStage.VALIDATE, start, measures.size());
+            return measures;
+        }
+
+        MesureBatch admitted = measures.slice(0, firstOrphan);
+        MesureBatch orphans = new MesureBatch();
+        for (int i = firstOrphan; i < measures.size(); i++) {
+            if (known.knows(measures, i)) {
+                admitted.addFrom(measures, i);
+            } else {
+                orphans.addFrom(measures, i);
+            }
+        }
+        EtlMetrics.record(EtlStage.VALIDATE, start, measures.size());
+
+        quarantine(conn, orphans, known);
+        RejectedMeasures.add(conn, orphans);
+        return admitted;
+    }
+
+    private static Snapshot load(Connection conn) throws SQLException {
+        IntHashSet stations = new IntHashSet();
+        try (PreparedStatement ps = conn.prepareStatement(STATIONS_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                stations.add(rs.getInt(1));
+            }
+        }
+
+        Set<String> codes = new HashSet<>();
+        try (PreparedStatement ps = conn.prepareStatement(POLLUTANTS_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                codes.add(rs.getString(1));
+            }
+        }
+
+        LOGGER.fine(() -> "Dimension lookup loaded: " + stations.size() + " stations, " + codes.size() + " pollutants");
+        return new Snapshot(stations, flags(codes));
+    }
+
+    private static boolean[] flags(Set<String> codes) {
+        boolean[] pollutants = new boolean[PolluantType.values().length];
+        for (PolluantType type : PolluantType.values()) {
+            pollutants[type.ordinal()] = codes.contains(type.name());
+        }
+        return pollutants;
+    }
+
+    private static void quarantine(Connection conn, MesureBatch orphans, Snapshot known) throws SQLException {
+        IntHashSet stations = new IntHashSet();
+        int unknownStations = 0;
+        for (int i = 0; i < orphans.size(); i++) {
+            if (!known.stations().contains(orphans.getStationId(i))) {
+                stations.add(orphans.getStationId(i));
+                unknownStations++;
+            }
+        }
+        if (unknownStations > 0) {
+            EtlMetrics.rejected(UNKNOWN_STATION, unknownStations);
+        }
+        if (unknownStations < orphans.size()) {
+            EtlMetrics.rejected(UNKNOWN_POLLUTANT, orphans.size() - unknownStations);
+        }
+
+        boolean stored = hasQuarantineTable(conn);
+        if (stored) {
+            try (PreparedStatement ps = conn.prepareStatement(QUARANTINE_SQL)) {
+                for (int i = 0; i < orphans.size(); i++) {
+                    ps.setInt(1, orphans.getStationId(i));
+                    ps.setDate(2, SqlDateCache.get(orphans.getEpochDay(i)));
+                    ps.setShort(3, (short) orphans.getHeure(i));
+                    ps.setString(4, orphans.getCodePolluant(i));
+                    ps.setInt(5, orphans.getValeur(i));
+                    ps.setString(6, known.stations().contains(orphans.getStationId(i)) ? UNKNOWN_POLLUTANT : UNKNOWN_STATION);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+
+        int stationRows = unknownStations;
+        LOGGER.warning(() -> String.format(
+                "%d orphan measures %s: %d with an unknown station %s, %d with an unknown pollutant",
+                orphans.size(), stored ? "quarantined in etl_orphan" : "dropped (no etl_orphan table)",
+                stationRows, Arrays.toString(stations.toSortedArray()), orphans.size() - stationRows));
+    }
+
+    private static boolean hasQuarantineTable(Connection conn) throws SQLException {
+        Boolean result = quarantineTable;
+        if (result == null) {
+            try (PreparedStatement ps = conn.prepareStatement(HAS_QUARANTINE_SQL);
+                 ResultSet rs = ps.executeQuery()) {
+                result = rs.next() && rs.getBoolean(1);
+            }
+            quarantineTable = result;
+        }
+        return result;
+    }
+}
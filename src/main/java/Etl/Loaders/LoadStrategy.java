@@ -0,0 +1,13 @@
+package Etl.Loaders;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Writes a block of rows of type {@code S} into {@code table}, where {@code table} is the table
+ * of the entity or one of its partitions. Implementations only differ in how the rows travel.
+ */
+@FunctionalInterface
+public interface LoadStrategy<S> {
+    void load(Connection conn, String table, S rows) throws SQLException;
+}
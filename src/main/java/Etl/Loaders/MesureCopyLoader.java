@@ -0,0 +1,165 @@
+package Etl.Loaders;
+
+import Models.Etl.Utils.EtlStage;
+import Models.MesureBatch;
+import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
+import Utils.Time.EpochDayUtil;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static Utils.Env.EnvUtil.getInt;
+
+public final class MesureCopyLoader {
+    private static final Logger LOGGER = LoggingUtil.getLogger(MesureCopyLoader.class);
+
+    private static final int COPY_BUFFER_SIZE = getInt("COPY_BUFFER_SIZE", 1 << 16);
+    private static final String NULL_MARKER = "\\N";
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE IF NOT EXISTS mesure_staging (
+                station_id    INTEGER,
+                date          DATE,
+                heure         SMALLINT,
+                code_polluant VARCHAR(20),
+                valeur        INTEGER,
+                seq           BIGINT
+            )
+            """;
+
+    private static final String COPY_SQL = """
+            COPY mesure_staging (station_id, date, heure, code_polluant, valeur, seq)
+            FROM STDIN
+            """;
+
+    private static final String MERGE_SQL = """
+            INSERT INTO mesure
+              (station_id, date, heure, code_polluant, valeur)
+            SELECT DISTINCT ON (station_id, date, heure)
+                   station_id, date, heure, code_polluant, valeur
+            FROM mesure_staging
+            ORDER BY station_id, date, heure, seq DESC
+            ON CONFLICT (station_id, date, heure) DO UPDATE
+            SET code_polluant = EXCLUDED.code_polluant,
+                valeur = EXCLUDED.valeur
+            """;
+
+    private MesureCopyLoader() { /* no instantiation */ }
+
+    public static int load(Connection conn, MesureBatch measures) throws SQLException {
+        prepareStagingTable(conn);
+        long copied = copyToStaging(conn, measures);
+        int merged = mergeIntoMesure(conn);
+
+        LOGGER.info(() -> String.format("COPY load completed: %d rows staged, %d rows merged into mesure",
+                copied, merged));
+        return merged;
+    }
+
+    private static void prepareStagingTable(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute(CREATE_STAGING_SQL);
+            st.execute("TRUNCATE mesure_staging");
+        }
+    }
+
+    private static long copyToStaging(Connection conn, MesureBatch measures) throws SQLException {
+        CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+        CopyIn copyIn = copyManager.copyIn(COPY_SQL);
+
+        try {
+            // Encoding the rows counts as binding, sending the buffers as executing.
+            long start = System.nanoTime();
+            long sendNanos = 0;
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 128);
+            for (int i = 0; i < measures.size(); i++) {
+                appendRow(buffer, measures, i);
+                if (buffer.length() >= COPY_BUFFER_SIZE) {
+                    sendNanos += flush(copyIn, buffer);
+                }
+            }
+            sendNanos += flush(copyIn, buffer);
+            long sendStart = System.nanoTime();
+            long copied = copyIn.endCopy();
+            sendNanos += System.nanoTime() - sendStart;
+
+            EtlMetrics.recordNanos(EtlStage.BIND, System.nanoTime() - start - sendNanos, measures.size());
+            EtlMetrics.recordNanos(EtlStage.EXECUTE, sendNanos, 0);
+            return copied;
+        } catch (SQLException | RuntimeException e) {
+            cancelQuietly(copyIn);
+            throw e;
+        }
+    }
+
+    private static void appendRow(StringBuilder buffer, MesureBatch measures, int i) {
+        buffer.append(measures.getStationId(i)).append('\t');
+        int epochDay = measures.getEpochDay(i);
+        if (epochDay == EpochDayUtil.NO_DATE) {
+            buffer.append(NULL_MARKER);
+        } else {
+            EpochDayUtil.appendIsoDate(buffer, epochDay);
+        }
+        buffer.append('\t').append(measures.getHeure(i)).append('\t');
+        appendText(buffer, measures.getCodePolluant(i));
+        buffer.append('\t').append(measures.getValeur(i))
+                .append('\t').append(i)
+                .append('\n');
+    }
+
+    private static void appendText(StringBuilder buffer, String value) {
+        if (value == null) {
+            buffer.append(NULL_MARKER);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+    }
+
+    /** Sends the buffer and returns the time spent writing it to the connection. */
+    private static long flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return 0;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        long start = System.nanoTime();
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        long elapsed = System.nanoTime() - start;
+        buffer.setLength(0);
+        return elapsed;
+    }
+
+    private static int mergeIntoMesure(Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement st = conn.createStatement()) {
+            int merged = st.executeUpdate(MERGE_SQL);
+            EtlMetrics.record(EtlStage.EXECUTE, start, merged);
+            return merged;
+        }
+    }
+
+    private static void cancelQuietly(CopyIn copyIn) {
+        try {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error cancelling COPY operation", e);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package Etl.Loaders;
+
+import Models.Etl.Loaders.Dto.PartitionResult;
+import Models.Etl.Utils.PartitionKey;
+import Models.MesureBatch;
+import Utils.Logging.LoggingUtil;
+import Utils.Time.EpochDayUtil;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+public final class ParallelMesureLoader {
+    private static final Logger LOGGER = LoggingUtil.getLogger(ParallelMesureLoader.class);
+
+    private static final MesureBatch END_OF_INPUT = new MesureBatch(1);
+    private static final MesureBatch ABORTED = new MesureBatch(1);
+
+    @FunctionalInterface
+    public interface PartitionLoader {
+        long load(int partition, Iterator<MesureBatch> batches) throws Exception;
+    }
+
+    private final int parallelism;
+    private final int queueCapacity;
+    private final PartitionKey partitionKey;
+
+    public ParallelMesureLoader(int parallelism, int queueCapacity, PartitionKey partitionKey) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.partitionKey = partitionKey;
+    }
+
+    public List<PartitionResult> load(Stream<MesureBatch> measureChunks, PartitionLoader loader) {
+        LOGGER.info(() -> String.format("Loading measures on %d partitions by %s", parallelism, partitionKey));
+
+        List<BlockingQueue<MesureBatch>> queues = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+
+        List<Future<PartitionResult>> futures = new ArrayList<>(parallelism);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < parallelism; i++) {
+                int partition = i;
+                futures.add(executor.submit(() -> runPartition(partition, queues.get(partition), loader)));
+            }
+
+            dispatch(measureChunks, queues);
+        }
+
+        List<PartitionResult> results = futures.stream().map(ParallelMesureLoader::resultOf).toList();
+        reportResults(results);
+        return results;
+    }
+
+    private void dispatch(Stream<MesureBatch> measureChunks, List<BlockingQueue<MesureBatch>> queues) {
+        MesureBatch terminator = END_OF_INPUT;
+        try (measureChunks) {
+            for (MesureBatch chunk : (Iterable<MesureBatch>) measureChunks::iterator) {
+                List<MesureBatch> split = split(chunk);
+                for (int i = 0; i < parallelism; i++) {
+                    if (!split.get(i).isEmpty()) {
+                        queues.get(i).put(split.get(i));
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            terminator = ABORTED;
+            LOGGER.warning("Measure dispatch interrupted; aborting all partitions");
+        } catch (RuntimeException e) {
+            terminator = ABORTED;
+            LOGGER.log(Level.SEVERE, "Measure extraction failed during parallel load; aborting all partitions", e);
+        } finally {
+            for (BlockingQueue<MesureBatch> queue : queues) {
+                putUninterruptibly(queue, terminator);
+            }
+        }
+    }
+
+    private List<MesureBatch> split(MesureBatch chunk) {
+        List<MesureBatch> split = new ArrayList<>(parallelism);
+        int expected = chunk.size() / parallelism + 1;
+        for (int i = 0; i < parallelism; i++) {
+            split.add(new MesureBatch(expected));
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            split.get(partitionOf(chunk, i)).addFrom(chunk, i);
+        }
+        return split;
+    }
+
+    private int partitionOf(MesureBatch chunk, int index) {
+        int key = switch (partitionKey) {
+            case STATION -> chunk.getStationId(index);
+            case MONTH -> EpochDayUtil.monthIndex(chunk.getEpochDay(index));
+        };
+        return Math.floorMod(mix(key), parallelism);
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static PartitionResult runPartition(
+            int partition,
+            BlockingQueue<MesureBatch> queue,
+            PartitionLoader loader) {
+
+        long start = System.nanoTime();
+        QueueIterator batches = new QueueIterator(queue);
+        PartitionResult.PartitionResultBuilder result = PartitionResult.builder().partition(partition);
+
+        try {
+            long rows = loader.load(partition, batches);
+            result.success(true).rowsLoaded(rows);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Partition " + partition + " failed: " + e.getMessage(), e);
+            result.success(false).errorMessage(e.getMessage());
+        } finally {
+            batches.drain();
+        }
+
+        return result.elapsedMillis((System.nanoTime() - start) / 1_000_000).build();
+    }
+
+    private static PartitionResult resultOf(Future<PartitionResult> future) {
+        try {
+            return future.resultNow();
+        } catch (IllegalStateException e) {
+            return PartitionResult.builder()
+                    .success(false)
+                    .errorMessage("Partition task did not complete: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    private static void reportResults(List<PartitionResult> results) {
+        long totalRows = 0;
+        List<PartitionResult> failures = new ArrayList<>();
+
+        for (PartitionResult r : results) {
+            totalRows += r.getRowsLoaded();
+            if (r.isSuccess()) {
+                LOGGER.info(() -> String.format("Partition %d: %d rows loaded in %d ms",
+                        r.getPartition(), r.getRowsLoaded(), r.getElapsedMillis()));
+            } else {
+                failures.add(r);
+                LOGGER.severe(() -> String.format("Partition %d: FAILED after %d ms: %s",
+                        r.getPartition(), r.getElapsedMillis(), r.getErrorMessage()));
+            }
+        }
+
+        long loaded = totalRows;
+        LOGGER.info(() -> String.format("Parallel load finished: %d rows, %d/%d partitions succeeded",
+                loaded, results.size() - failures.size(), results.size()));
+
+        if (!failures.isEmpty()) {
+            throw new RuntimeException(failures.size() + " of " + results.size()
+                    + " partitions failed to load; first error: " + failures.getFirst().getErrorMessage());
+        }
+    }
+
+    private static void putUninterruptibly(BlockingQueue<MesureBatch> queue, MesureBatch item) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class QueueIterator implements Iterator<MesureBatch> {
+        private final BlockingQueue<MesureBatch> queue;
+        private MesureBatch next;
+        private boolean finished;
+
+        private QueueIterator(BlockingQueue<MesureBatch> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (finished) {
+                return false;
+            }
+            if (next == null) {
+                next = take();
+            }
+            if (next == ABORTED) {
+                finished = true;
+                throw new IllegalStateException("Measure input aborted before end of stream");
+            }
+            if (next == END_OF_INPUT) {
+                finished = true;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public MesureBatch next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            MesureBatch batch = next;
+            next = null;
+            return batch;
+        }
+
+        private void drain() {
+            while (!finished) {
+                MesureBatch item = take();
+                finished = item == END_OF_INPUT || item == ABORTED;
+            }
+        }
+
+        private MesureBatch take() {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for measures", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package Etl.Loaders;
+
+import Models.Etl.Utils.PartitionInterval;
+import Models.MesureBatch;
+import Utils.Database.CommitHooks;
+import Utils.Database.DatabaseUtil;
+import Utils.Logging.LoggingUtil;
+import Utils.Time.EpochDayUtil;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import static Utils.Env.EnvUtil.getString;
+
+/**
+ * Creates the partitions of {@code mesure} when it is partitioned by range on {@code date}
+ * ({@code sql/init.sql}), one per {@code MESURE_PARTITION_INTERVAL} (month or year), and splits
+ * batches so each part can be written straight to its partition. A plain {@code mesure} table
+ * is left alone.
+ * <p>
+ * Creating a partition takes an exclusive lock on {@code mesure} until commit, which would block
+ * every reader for the length of a load and deadlock loaders that already write to it. So the
+ * partitions covering the dates of the file are created before the load, in a short transaction
+ * of their own ({@link #ensureRange}), and loaders only check their batches against the periods
+ * known to exist, in memory. A period the range did not cover is created on the connection of a
+ * sole loader ({@link #ensureKnown(Connection, MesureBatch)}), or in a short transaction of its own
+ * when loaders run in parallel ({@link #ensureKnown(MesureBatch)}), never on one of their
+ * connections. Short transactions give up after {@value #LOCK_TIMEOUT} rather than wait for open
+ * loads. Periods are only known once the transaction that created or found them has committed.
+ */
+public final class PartitionManager {
+    private static final Logger LOGGER = LoggingUtil.getLogger(PartitionManager.class);
+
+    public static final String PARENT_TABLE = "mesure";
+
+    private static final PartitionInterval INTERVAL =
+            PartitionInterval.fromString(getString("MESURE_PARTITION_INTERVAL", "month"));
+
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?)";
+    private static final String MISSING_SQL =
+            "SELECT name FROM unnest(?::text[]) AS t(name) WHERE to_regclass(name) IS NULL";
+
+    private static final String LOCK_TIMEOUT = "5s";
+
+    /** Periods whose partition exists, as seen by committed transactions. */
+    private static final Set<Integer> KNOWN = ConcurrentHashMap.newKeySet();
+
+    private static volatile Boolean partitioned;
+
+    private PartitionManager() { /* no instantiation */ }
+
+    /** Checked once per process; the layout of {@code mesure} does not change while loading. */
+    public static boolean isPartitioned(Connection conn) throws SQLException {
+        Boolean result = partitioned;
+        if (result == null) {
+            synchronized (PartitionManager.class) {
+                if (partitioned == null) {
+                    partitioned = detect(conn);
+                    LOGGER.info(partitioned
+                            ? "Table " + PARENT_TABLE + " is partitioned by " + INTERVAL.name().toLowerCase(Locale.ROOT)
+                            : "Table " + PARENT_TABLE + " is not partitioned");
+                }
+                result = partitioned;
+            }
+        }
+        return result;
+    }
+
+    private static boolean detect(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(IS_PARTITIONED_SQL)) {
+            ps.setString(1, PARENT_TABLE);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs != null && rs.next();
+            }
+        }
+    }
+
+    /**
+     * Makes sure every partition between the two days exists, in a short transaction committed
+     * before the load starts; a no-op without dates or once the periods are known.
+     */
+    public static void ensureRange(int firstEpochDay, int lastEpochDay) {
+        if (firstEpochDay == EpochDayUtil.NO_DATE || lastEpochDay == EpochDayUtil.NO_DATE) {
+            return;
+        }
+        TreeSet<Integer> periods = new TreeSet<>();
+        for (int period = INTERVAL.periodOf(firstEpochDay); period <= INTERVAL.periodOf(lastEpochDay); period++) {
+            periods.add(period);
+        }
+        createInOwnTransaction(periods);
+    }
+
+    /**
+     * Makes sure the partitions of {@code measures} exist, without a round trip when their periods
+     * are known. Unknown ones are created on {@code conn}, which must be the only connection
+     * writing measurements; the caller must have checked {@link #isPartitioned}.
+     */
+    public static void ensureKnown(Connection conn, MesureBatch measures) throws SQLException {
+        TreeSet<Integer> unknown = unknownPeriods(measures);
+        if (!unknown.isEmpty()) {
+            createMissing(conn, unknown);
+        }
+    }
+
+    /**
+     * Same as {@link #ensureKnown(Connection, MesureBatch)} for loaders running in parallel:
+     * unknown partitions are created on a connection of their own and committed at once.
+     */
+    public static void ensureKnown(MesureBatch measures) {
+        TreeSet<Integer> unknown = unknownPeriods(measures);
+        if (unknown.isEmpty()) {
+            return;
+        }
+        LOGGER.warning(() -> "Measures outside the range of the dimensions, checking partitions for "
+                + unknown.size() + " period(s)");
+        createInOwnTransaction(unknown);
+    }
+
+    private static void createInOwnTransaction(TreeSet<Integer> periods) {
+        synchronized (KNOWN) {
+            periods.removeAll(KNOWN);
+            if (periods.isEmpty()) {
+                return;
+            }
+            DatabaseUtil.runTransaction(connection -> {
+                if (!isPartitioned(connection)) {
+                    return;
+                }
+                try (Statement st = connection.createStatement()) {
+                    st.execute("SET LOCAL lock_timeout = '" + LOCK_TIMEOUT + "'");
+                }
+                createMissing(connection, periods);
+            });
+        }
+    }
+
+    private static TreeSet<Integer> unknownPeriods(MesureBatch measures) {
+        TreeSet<Integer> periods = new TreeSet<>();
+        int lastEpochDay = EpochDayUtil.NO_DATE;
+        for (int i = 0; i < measures.size(); i++) {
+            int epochDay = measures.getEpochDay(i);
+            if (epochDay != lastEpochDay && epochDay != EpochDayUtil.NO_DATE) {
+                int period = INTERVAL.periodOf(epochDay);
+                if (!KNOWN.contains(period)) {
+                    periods.add(period);
+                }
+                lastEpochDay = epochDay;
+            }
+        }
+        return periods;
+    }
+
+    /**
+     * Splits {@code measures} by partition table, keeping the row order within each part.
+     * Rows without a date stay with the parent table, which rejects them as before.
+     */
+    public static Map<String, MesureBatch> split(MesureBatch measures) {
+        Map<String, MesureBatch> parts = new LinkedHashMap<>();
+        int lastEpochDay = EpochDayUtil.NO_DATE;
+        MesureBatch current = null;
+        for (int i = 0; i < measures.size(); i++) {
+            int epochDay = measures.getEpochDay(i);
+            if (current == null || epochDay != lastEpochDay) {
+                current = parts.computeIfAbsent(tableOf(epochDay), table -> new MesureBatch(Math.min(measures.size(), 1024)));
+                lastEpochDay = epochDay;
+            }
+            current.addFrom(measures, i);
+        }
+        return parts;
+    }
+
+    public static String tableOf(int epochDay) {
+        if (epochDay == EpochDayUtil.NO_DATE) {
+            return PARENT_TABLE;
+        }
+        return PARENT_TABLE + "_" + INTERVAL.suffixOf(INTERVAL.periodOf(epochDay));
+    }
+
+    private static void createMissing(Connection conn, TreeSet<Integer> periods) throws SQLException {
+        if (periods.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> byName = new LinkedHashMap<>();
+        periods.forEach(period -> byName.put(PARENT_TABLE + "_" + INTERVAL.suffixOf(period), period));
+
+        List<String> missing = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(MISSING_SQL)) {
+            Array names = conn.createArrayOf("text", byName.keySet().toArray());
+            ps.setArray(1, names);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    missing.add(rs.getString(1));
+                }
+            }
+        }
+
+        try (Statement st = conn.createStatement()) {
+            for (String table : missing) {
+                int period = byName.get(table);
+                st.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        table, PARENT_TABLE, isoDate(INTERVAL.firstDayOf(period)), isoDate(INTERVAL.firstDayOf(period + 1))));
+                LOGGER.info("Created partition " + table);
+            }
+        }
+        CommitHooks.afterCommit(conn, () -> KNOWN.addAll(periods));
+    }
+
+    private static String isoDate(int epochDay) {
+        StringBuilder date = new StringBuilder(10);
+        EpochDayUtil.appendIsoDate(date, epochDay);
+        return date.toString();
+    }
+}
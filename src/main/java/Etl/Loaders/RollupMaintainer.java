@@ -0,0 +1,196 @@
+package Etl.Loaders;
+
+import Models.Etl.Utils.EtlStage;
+import Models.MesureBatch;
+import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
+import Utils.Time.EpochDayUtil;
+import org.postgresql.PGConnection;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import static Utils.Env.EnvUtil.getBoolean;
+
+/**
+ * Keeps the {@code mesure_jour} and {@code mesure_mois} rollups in step with {@code mesure}.
+ * After a batch is written, only the (station, day) buckets it touched are recomputed from
+ * {@code mesure}, then the (station, month) buckets around them from {@code mesure_jour}, on the
+ * same connection and transaction: a commit never exposes measures without their rollups.
+ * Buckets are rebuilt rather than incremented because an upsert may replace a value or a
+ * pollutant, which a running min/max cannot undo.
+ */
+public final class RollupMaintainer {
+    private static final Logger LOGGER = LoggingUtil.getLogger(RollupMaintainer.class);
+
+    private static final boolean ETL_ROLLUPS = getBoolean("ETL_ROLLUPS", true);
+
+    private static final String HAS_TABLES_SQL =
+            "SELECT to_regclass('mesure_jour') IS NOT NULL AND to_regclass('mesure_mois') IS NOT NULL";
+
+    private static final String DELETE_DAYS_SQL = """
+            DELETE FROM mesure_jour j
+            USING unnest(?::int[], ?::int[]) AS b(station_id, epoch_day)
+            WHERE j.station_id = b.station_id
+              AND j.date = DATE '1970-01-01' + b.epoch_day
+            """;
+
+    private static final String INSERT_DAYS_SQL = """
+            INSERT INTO mesure_jour
+              (station_id, date, code_polluant, nb_mesures, valeur_min, valeur_max, valeur_somme)
+            SELECT m.station_id, m.date, m.code_polluant,
+                   count(m.valeur), min(m.valeur), max(m.valeur), coalesce(sum(m.valeur), 0)
+            FROM unnest(?::int[], ?::int[]) AS b(station_id, epoch_day)
+            JOIN mesure m
+              ON m.station_id = b.station_id
+             AND m.date = DATE '1970-01-01' + b.epoch_day
+            WHERE m.code_polluant IS NOT NULL
+            GROUP BY m.station_id, m.date, m.code_polluant
+            """;
+
+    private static final String DELETE_MONTHS_SQL = """
+            DELETE FROM mesure_mois o
+            USING unnest(?::int[], ?::int[]) AS b(station_id, first_day)
+            WHERE o.station_id = b.station_id
+              AND o.mois = DATE '1970-01-01' + b.first_day
+            """;
+
+    private static final String INSERT_MONTHS_SQL = """
+            INSERT INTO mesure_mois
+              (station_id, mois, code_polluant, nb_mesures, valeur_min, valeur_max, valeur_somme)
+            SELECT j.station_id, DATE '1970-01-01' + b.first_day, j.code_polluant,
+                   sum(j.nb_mesures)::int, min(j.valeur_min), max(j.valeur_max), sum(j.valeur_somme)::bigint
+            FROM unnest(?::int[], ?::int[], ?::int[]) AS b(station_id, first_day, next_first_day)
+            JOIN mesure_jour j
+              ON j.station_id = b.station_id
+             AND j.date >= DATE '1970-01-01' + b.first_day
+             AND j.date < DATE '1970-01-01' + b.next_first_day
+            GROUP BY j.station_id, b.first_day, j.code_polluant
+            """;
+
+    private static volatile Boolean enabled;
+
+    private RollupMaintainer() { /* no instantiation */ }
+
+    /** Checked once per process; disabled by {@code ETL_ROLLUPS=false} or a schema without the tables. */
+    public static boolean isEnabled(Connection conn) throws SQLException {
+        Boolean result = enabled;
+        if (result == null) {
+            synchronized (RollupMaintainer.class) {
+                if (enabled == null) {
+                    enabled = ETL_ROLLUPS && detect(conn);
+                    LOGGER.info(enabled
+                            ? "Maintaining the mesure_jour and mesure_mois rollups"
+                            : "Rollups disabled or rollup tables missing");
+                }
+                result = enabled;
+            }
+        }
+        return result;
+    }
+
+    private static boolean detect(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(HAS_TABLES_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            return rs != null && rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    /** Recomputes the daily then monthly buckets of the rows in {@code measures}, just written on {@code conn}. */
+    public static void refresh(Connection conn, MesureBatch measures) throws SQLException {
+        if (measures.isEmpty() || !isEnabled(conn)) {
+            return;
+        }
+        long start = System.nanoTime();
+
+        long[] days = buckets(measures, false);
+        if (days.length == 0) {
+            return;
+        }
+        long[] months = buckets(measures, true);
+
+        int[] dayStations = stations(days);
+        int[] dayEpochs = epochDays(days);
+        execute(conn, DELETE_DAYS_SQL, dayStations, dayEpochs);
+        int dailyRows = execute(conn, INSERT_DAYS_SQL, dayStations, dayEpochs);
+
+        int[] monthStations = stations(months);
+        int[] firstDays = epochDays(months);
+        int[] nextFirstDays = new int[firstDays.length];
+        for (int i = 0; i < firstDays.length; i++) {
+            nextFirstDays[i] = firstDayOfMonth(EpochDayUtil.monthIndex(firstDays[i]) + 1);
+        }
+        execute(conn, DELETE_MONTHS_SQL, monthStations, firstDays);
+        int monthlyRows = execute(conn, INSERT_MONTHS_SQL, monthStations, firstDays, nextFirstDays);
+
+        EtlMetrics.record(EtlStage.ROLLUP, start, measures.size());
+        LOGGER.fine(() -> String.format("Rollups refreshed: %d day buckets (%d rows), %d month buckets (%d rows)",
+                days.length, dailyRows, months.length, monthlyRows));
+    }
+
+    /** Distinct (station, day) or (station, first day of month) keys, packed in a long and sorted. */
+    private static long[] buckets(MesureBatch measures, boolean byMonth) {
+        long[] keys = new long[measures.size()];
+        int count = 0;
+        for (int i = 0; i < measures.size(); i++) {
+            int epochDay = measures.getEpochDay(i);
+            if (epochDay == EpochDayUtil.NO_DATE) {
+                continue;
+            }
+            int day = byMonth ? firstDayOfMonth(EpochDayUtil.monthIndex(epochDay)) : epochDay;
+            keys[count++] = ((long) measures.getStationId(i) << 32) | (day & 0xFFFF_FFFFL);
+        }
+        Arrays.sort(keys, 0, count);
+
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || keys[i] != keys[distinct - 1]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    private static int[] stations(long[] keys) {
+        int[] stations = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            stations[i] = (int) (keys[i] >> 32);
+        }
+        return stations;
+    }
+
+    private static int[] epochDays(long[] keys) {
+        int[] days = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            days[i] = (int) keys[i];
+        }
+        return days;
+    }
+
+    private static int firstDayOfMonth(int monthIndex) {
+        return EpochDayUtil.toEpochDay(Math.floorDiv(monthIndex, 12), Math.floorMod(monthIndex, 12) + 1, 1);
+    }
+
+    /** Binds each {@code int[]} as it is, without boxing, like {@link UnnestUpsert}. */
+    private static int execute(Connection conn, String sql, int[]... columns) throws SQLException {
+        Array[] arrays = new Array[columns.length];
+        PGConnection pgConn = conn.unwrap(PGConnection.class);
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int c = 0; c < columns.length; c++) {
+                arrays[c] = pgConn.createArrayOf("int4", columns[c]);
+                ps.setArray(c + 1, arrays[c]);
+            }
+            return ps.executeUpdate();
+        } finally {
+            for (Array array : arrays) {
+                if (array != null) {
+                    array.free();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package Etl.Loaders;
+
+import Etl.State.RejectedMeasures;
+import Models.MesureBatch;
+import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
+import Utils.Time.SqlDateCache;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Writes a batch of measurements under a savepoint so that a row breaking a constraint does not
+ * abort the whole transaction. When the write fails with a data or integrity error (SQLSTATE
+ * class 22 or 23), the batch is rolled back to the savepoint and split in halves, each written
+ * under its own savepoint, down to the rows that fail alone. Those go to {@code etl_dead_letter}
+ * with the error, or are only logged when the table does not exist, and are reported to
+ * {@link RejectedMeasures} so the run does not record them as loaded; the other rows stay in the
+ * transaction. One bad row costs about 2·log2(batch size) extra writes. Any other error
+ * (connection, missing table, ...) would fail every row, so it is rethrown as is.
+ */
+public final class SavepointBisector {
+    private static final Logger LOGGER = LoggingUtil.getLogger(SavepointBisector.class);
+
+    private static final String HAS_DEAD_LETTER_SQL = "SELECT to_regclass('etl_dead_letter') IS NOT NULL";
+    private static final String DEAD_LETTER_SQL = """
+            INSERT INTO etl_dead_letter (station_id, date, heure, code_polluant, valeur, sql_state, error)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static volatile Boolean deadLetterTable;
+
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(Connection conn, MesureBatch measures) throws SQLException;
+    }
+
+    private final Connection conn;
+    private final BatchWriter writer;
+    private final MesureBatch written;
+    private final MesureBatch rejected = new MesureBatch();
+    private final List<SQLException> errors = new ArrayList<>();
+    private int attempts = 1;
+
+    private SavepointBisector(Connection conn, BatchWriter writer, int size) {
+        this.conn = conn;
+        this.writer = writer;
+        this.written = new MesureBatch(size);
+    }
+
+    /** Writes {@code measures} with {@code writer} and returns the rows that were written. */
+    public static MesureBatch write(Connection conn, MesureBatch measures, BatchWriter writer) throws SQLException {
+        SavepointBisector bisector = new SavepointBisector(conn, writer, measures.size());
+        SQLException error = bisector.attempt(measures);
+        if (error == null) {
+            return measures;
+        }
+        LOGGER.warning(() -> String.format("Batch of %d measures failed (%s), isolating the bad rows",
+                measures.size(), message(error)));
+
+        bisector.bisect(measures, error);
+        bisector.deadLetter();
+        RejectedMeasures.add(conn, bisector.rejected);
+        LOGGER.warning(() -> String.format("%d of %d measures rejected after %d attempts, %d kept",
+                bisector.rejected.size(), measures.size(), bisector.attempts, bisector.written.size()));
+        return bisector.written;
+    }
+
+    /** {@code null} when the rows were written, the error otherwise, after rolling back to the savepoint. */
+    private SQLException attempt(MesureBatch measures) throws SQLException {
+        Savepoint savepoint = conn.setSavepoint();
+        try {
+            writer.write(conn, measures);
+            conn.releaseSavepoint(savepoint);
+            return null;
+        } catch (SQLException e) {
+            if (!isRowError(e)) {
+                throw e;
+            }
+            conn.rollback(savepoint);
+            conn.releaseSavepoint(savepoint);
+            return e;
+        }
+    }
+
+    /** {@code measures} failed with {@code error}: writes each half, recursing into the halves that fail too. */
+    private void bisect(MesureBatch measures, SQLException error) throws SQLException {
+        if (measures.size() == 1) {
+            rejected.addFrom(measures, 0);
+            errors.add(error);
+            return;
+        }
+        int middle = measures.size() / 2;
+        for (MesureBatch half : List.of(measures.slice(0, middle), measures.slice(middle, measures.size()))) {
+            attempts++;
+            SQLException halfError = attempt(half);
+            if (halfError == null) {
+                written.addAll(half);
+            } else {
+                bisect(half, halfError);
+            }
+        }
+    }
+
+    private void deadLetter() throws SQLException {
+        EtlMetrics.rejected("constraint", rejected.size());
+        if (!hasDeadLetterTable(conn)) {
+            for (int i = 0; i < rejected.size(); i++) {
+                LOGGER.severe("Rejected measure " + rejected.get(i) + ": " + message(errors.get(i)));
+            }
+            return;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(DEAD_LETTER_SQL)) {
+            for (int i = 0; i < rejected.size(); i++) {
+                ps.setInt(1, rejected.getStationId(i));
+                ps.setDate(2, SqlDateCache.get(rejected.getEpochDay(i)));
+                ps.setShort(3, (short) rejected.getHeure(i));
+                ps.setString(4, rejected.getCodePolluant(i));
+                ps.setInt(5, rejected.getValeur(i));
+                ps.setString(6, rootCause(errors.get(i)).getSQLState());
+                ps.setString(7, message(errors.get(i)));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /** Data exceptions (class 22) and integrity constraint violations (class 23) are caused by the rows. */
+    private static boolean isRowError(SQLException e) {
+        String state = rootCause(e).getSQLState();
+        return state != null && (state.startsWith("22") || state.startsWith("23"));
+    }
+
+    /** A failed JDBC batch carries the statement's own error as its next exception. */
+    private static SQLException rootCause(SQLException e) {
+        return e.getNextException() != null ? e.getNextException() : e;
+    }
+
+    private static String message(SQLException e) {
+        return rootCause(e).getMessage();
+    }
+
+    private static boolean hasDeadLetterTable(Connection conn) throws SQLException {
+        Boolean result = deadLetterTable;
+        if (result == null) {
+            try (PreparedStatement ps = conn.prepareStatement(HAS_DEAD_LETTER_SQL);
+                 ResultSet rs = ps.executeQuery()) {
+                result = rs.next() && rs.getBoolean(1);
+            }
+            deadLetterTable = result;
+        }
+        return result;
+    }
+}
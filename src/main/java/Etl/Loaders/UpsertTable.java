@@ -0,0 +1,323 @@
+package Etl.Loaders;
+
+import Models.Etl.Utils.LoadMode;
+import Utils.Time.EpochDayUtil;
+import Utils.Time.SqlDateCache;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Columns of a table, how to read them from a block of rows of type {@code S}, and the key the
+ * upsert conflicts on. Every {@link LoadStrategy} but COPY is generated from it, so a table is
+ * described once whatever the strategy.
+ * <p>
+ * Columns are typed: each one reads a primitive, a string or an epoch day from the rows and
+ * binds it with the matching setter, or fills a primitive array for {@code unnest}, so no
+ * value is boxed or type-checked per row. Dates come from {@link SqlDateCache}.
+ */
+public final class UpsertTable<S> {
+
+    /** SQL type of a column, with its array element name and SQL cast. */
+    public enum ColumnType {
+        INTEGER("int4", "integer"),
+        SMALLINT("int2", "smallint"),
+        DOUBLE("float8", "double precision"),
+        VARCHAR("varchar", "varchar"),
+        DATE("date", "date");
+
+        private final String elementType;
+        private final String castType;
+
+        ColumnType(String elementType, String castType) {
+            this.elementType = elementType;
+            this.castType = castType;
+        }
+
+        String elementType() {
+            return elementType;
+        }
+
+        String castType() {
+            return castType;
+        }
+    }
+
+    @FunctionalInterface
+    public interface IntReader<S> {
+        int read(S rows, int index);
+    }
+
+    @FunctionalInterface
+    public interface DoubleReader<S> {
+        double read(S rows, int index);
+    }
+
+    @FunctionalInterface
+    public interface TextReader<S> {
+        String read(S rows, int index);
+    }
+
+    /** One column: binds the value of a row, or builds the array of a whole block. */
+    abstract static sealed class Column<S> {
+        private final String name;
+        private final ColumnType type;
+
+        Column(String name, ColumnType type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        String name() {
+            return name;
+        }
+
+        ColumnType type() {
+            return type;
+        }
+
+        abstract void bind(PreparedStatement ps, int parameter, S rows, int index) throws SQLException;
+
+        /** An {@code int[]}, {@code short[]}, {@code double[]} or {@code String[]} of the first {@code size} rows. */
+        abstract Object toArray(S rows, int size);
+    }
+
+    private static final class IntColumn<S> extends Column<S> {
+        private final IntReader<S> reader;
+
+        IntColumn(String name, IntReader<S> reader) {
+            super(name, ColumnType.INTEGER);
+            this.reader = reader;
+        }
+
+        @Override
+        void bind(PreparedStatement ps, int parameter, S rows, int index) throws SQLException {
+            ps.setInt(parameter, reader.read(rows, index));
+        }
+
+        @Override
+        Object toArray(S rows, int size) {
+            int[] values = new int[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = reader.read(rows, i);
+            }
+            return values;
+        }
+    }
+
+    private static final class SmallintColumn<S> extends Column<S> {
+        private final IntReader<S> reader;
+
+        SmallintColumn(String name, IntReader<S> reader) {
+            super(name, ColumnType.SMALLINT);
+            this.reader = reader;
+        }
+
+        @Override
+        void bind(PreparedStatement ps, int parameter, S rows, int index) throws SQLException {
+            ps.setShort(parameter, (short) reader.read(rows, index));
+        }
+
+        @Override
+        Object toArray(S rows, int size) {
+            short[] values = new short[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = (short) reader.read(rows, i);
+            }
+            return values;
+        }
+    }
+
+    private static final class DoubleColumn<S> extends Column<S> {
+        private final DoubleReader<S> reader;
+
+        DoubleColumn(String name, DoubleReader<S> reader) {
+            super(name, ColumnType.DOUBLE);
+            this.reader = reader;
+        }
+
+        @Override
+        void bind(PreparedStatement ps, int parameter, S rows, int index) throws SQLException {
+            ps.setDouble(parameter, reader.read(rows, index));
+        }
+
+        @Override
+        Object toArray(S rows, int size) {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = reader.read(rows, i);
+            }
+            return values;
+        }
+    }
+
+    private static final class TextColumn<S> extends Column<S> {
+        private final TextReader<S> reader;
+
+        TextColumn(String name, TextReader<S> reader) {
+            super(name, ColumnType.VARCHAR);
+            this.reader = reader;
+        }
+
+        @Override
+        void bind(PreparedStatement ps, int parameter, S rows, int index) throws SQLException {
+            String value = reader.read(rows, index);
+            if (value == null) {
+                ps.setNull(parameter, Types.VARCHAR);
+            } else {
+                ps.setString(parameter, value);
+            }
+        }
+
+        @Override
+        Object toArray(S rows, int size) {
+            String[] values = new String[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = reader.read(rows, i);
+            }
+            return values;
+        }
+    }
+
+    /** Reads epoch days; {@link EpochDayUtil#NO_DATE} is {@code NULL}. */
+    private static final class DateColumn<S> extends Column<S> {
+        private final IntReader<S> reader;
+
+        DateColumn(String name, IntReader<S> reader) {
+            super(name, ColumnType.DATE);
+            this.reader = reader;
+        }
+
+        @Override
+        void bind(PreparedStatement ps, int parameter, S rows, int index) throws SQLException {
+            int epochDay = reader.read(rows, index);
+            if (epochDay == EpochDayUtil.NO_DATE) {
+                ps.setNull(parameter, Types.DATE);
+            } else {
+                ps.setDate(parameter, SqlDateCache.get(epochDay));
+            }
+        }
+
+        /** ISO strings, formatted once per run of equal days since blocks are mostly sorted by date. */
+        @Override
+        Object toArray(S rows, int size) {
+            String[] values = new String[size];
+            StringBuilder buffer = new StringBuilder(10);
+            int lastDay = EpochDayUtil.NO_DATE;
+            String lastText = null;
+            for (int i = 0; i < size; i++) {
+                int epochDay = reader.read(rows, i);
+                if (epochDay == EpochDayUtil.NO_DATE) {
+                    continue;
+                }
+                if (epochDay != lastDay) {
+                    buffer.setLength(0);
+                    EpochDayUtil.appendIsoDate(buffer, epochDay);
+                    lastDay = epochDay;
+                    lastText = buffer.toString();
+                }
+                values[i] = lastText;
+            }
+            return values;
+        }
+    }
+
+    private final String name;
+    private final ToIntFunction<S> sizeOf;
+    private final List<Column<S>> columns = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+
+    private UpsertTable(String name, ToIntFunction<S> sizeOf) {
+        this.name = name;
+        this.sizeOf = sizeOf;
+    }
+
+    public static <S> UpsertTable<S> of(String name, ToIntFunction<S> sizeOf) {
+        return new UpsertTable<>(name, sizeOf);
+    }
+
+    public UpsertTable<S> intColumn(String column, IntReader<S> reader) {
+        columns.add(new IntColumn<>(column, reader));
+        return this;
+    }
+
+    public UpsertTable<S> smallintColumn(String column, IntReader<S> reader) {
+        columns.add(new SmallintColumn<>(column, reader));
+        return this;
+    }
+
+    public UpsertTable<S> doubleColumn(String column, DoubleReader<S> reader) {
+        columns.add(new DoubleColumn<>(column, reader));
+        return this;
+    }
+
+    public UpsertTable<S> textColumn(String column, TextReader<S> reader) {
+        columns.add(new TextColumn<>(column, reader));
+        return this;
+    }
+
+    /** {@code reader} returns epoch days, {@link EpochDayUtil#NO_DATE} for {@code NULL}. */
+    public UpsertTable<S> dateColumn(String column, IntReader<S> reader) {
+        columns.add(new DateColumn<>(column, reader));
+        return this;
+    }
+
+    public UpsertTable<S> key(String... columnNames) {
+        Collections.addAll(keys, columnNames);
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** {@link LoadMode#COPY} is table specific and has no generic strategy. */
+    public LoadStrategy<S> strategy(LoadMode mode) {
+        return switch (mode) {
+            case BATCH -> new BatchUpsert<>(this);
+            case UNNEST -> new UnnestUpsert<>(this);
+            case COPY -> throw new IllegalArgumentException("No generic COPY strategy for table " + name);
+        };
+    }
+
+    /** Binds every column of row {@code index} to parameters 1..n, in column order. */
+    public void bind(PreparedStatement ps, S rows, int index) throws SQLException {
+        for (int c = 0; c < columns.size(); c++) {
+            columns.get(c).bind(ps, c + 1, rows, index);
+        }
+    }
+
+    public int size(S rows) {
+        return sizeOf.applyAsInt(rows);
+    }
+
+    List<Column<S>> columns() {
+        return columns;
+    }
+
+    String columnList() {
+        return columns.stream().map(Column::name).collect(Collectors.joining(", "));
+    }
+
+    String keyList() {
+        return String.join(", ", keys);
+    }
+
+    /** {@code ON CONFLICT (keys) DO UPDATE SET column = EXCLUDED.column} for every other column. */
+    String onConflict() {
+        String updates = columns.stream()
+                .map(Column::name)
+                .filter(column -> !keys.contains(column))
+                .map(column -> column + " = EXCLUDED." + column)
+                .collect(Collectors.joining(",\n    "));
+        return updates.isEmpty()
+                ? "ON CONFLICT (" + keyList() + ") DO NOTHING"
+                : "ON CONFLICT (" + keyList() + ") DO UPDATE\nSET " + updates;
+    }
+}
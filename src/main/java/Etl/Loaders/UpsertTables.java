@@ -0,0 +1,52 @@
+package Etl.Loaders;
+
+import Models.MesureBatch;
+import Models.Municipalite;
+import Models.Polluant;
+import Models.Station;
+import Models.TypeMilieu;
+import Utils.Time.EpochDayUtil;
+
+import java.util.List;
+
+/** The tables loaded through an {@link UpsertTable}, with the typed binder of each entity. */
+public final class UpsertTables {
+
+    public static final UpsertTable<List<TypeMilieu>> TYPE_MILIEU = UpsertTable.<List<TypeMilieu>>of("type_milieu", List::size)
+            .intColumn("type_milieu_id", (rows, i) -> rows.get(i).getTypeMilieuId())
+            .textColumn("nom", (rows, i) -> rows.get(i).getNom())
+            .key("type_milieu_id");
+
+    public static final UpsertTable<List<Municipalite>> MUNICIPALITE = UpsertTable.<List<Municipalite>>of("municipalite", List::size)
+            .intColumn("municipalite_id", (rows, i) -> rows.get(i).getMunicipaliteId())
+            .textColumn("nom", (rows, i) -> rows.get(i).getNom())
+            .key("municipalite_id");
+
+    public static final UpsertTable<List<Station>> STATION = UpsertTable.<List<Station>>of("station", List::size)
+            .intColumn("station_id", (rows, i) -> rows.get(i).getStationId())
+            .textColumn("adresse", (rows, i) -> rows.get(i).getAdresse())
+            .doubleColumn("latitude", (rows, i) -> rows.get(i).getLatitude())
+            .doubleColumn("longitude", (rows, i) -> rows.get(i).getLongitude())
+            .doubleColumn("x_coord", (rows, i) -> rows.get(i).getXCoord())
+            .doubleColumn("y_coord", (rows, i) -> rows.get(i).getYCoord())
+            .dateColumn("date_ouverture", (rows, i) -> EpochDayUtil.toEpochDay(rows.get(i).getDateOuverture()))
+            .dateColumn("date_fermeture", (rows, i) -> EpochDayUtil.toEpochDay(rows.get(i).getDateFermeture()))
+            .intColumn("municipalite_id", (rows, i) -> rows.get(i).getMunicipaliteId())
+            .intColumn("type_milieu_id", (rows, i) -> rows.get(i).getTypeMilieuId())
+            .key("station_id");
+
+    public static final UpsertTable<List<Polluant>> POLLUANT = UpsertTable.<List<Polluant>>of("polluant", List::size)
+            .textColumn("code_polluant", (rows, i) -> rows.get(i).getCodePolluant())
+            .textColumn("description", (rows, i) -> rows.get(i).getDescription())
+            .key("code_polluant");
+
+    public static final UpsertTable<MesureBatch> MESURE = UpsertTable.of(PartitionManager.PARENT_TABLE, MesureBatch::size)
+            .intColumn("station_id", MesureBatch::getStationId)
+            .dateColumn("date", MesureBatch::getEpochDay)
+            .smallintColumn("heure", MesureBatch::getHeure)
+            .textColumn("code_polluant", MesureBatch::getCodePolluant)
+            .intColumn("valeur", MesureBatch::getValeur)
+            .key("station_id", "date", "heure");
+
+    private UpsertTables() { /* no instances */ }
+}
@@ -0,0 +1,365 @@
+package Etl.Pipeline;
+
+import Etl.DataExtractor;
+import Etl.DataLoader;
+import Etl.Extractors.MesureExtractor;
+import Etl.Extractors.StationExtractor;
+import Etl.State.RowFingerprints;
+import Etl.State.StationWatermarks;
+import Models.Etl.Dto.RunReport;
+import Models.Etl.Extractors.Dto.CsvData;
+import Models.Etl.Extractors.Dto.MesureData;
+import Models.Etl.Extractors.Dto.StationData;
+import Models.MesureBatch;
+import Utils.Logging.LoggingUtil;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Runs extraction, change detection and loading at the same time instead of one after the other.
+ * <ul>
+ *   <li>extract: the station file and the dimension pass over the measurement file are read
+ *   concurrently, then the dimensions are loaded; meanwhile measurement chunks are read on
+ *   {@code extractThreads} parser threads and filtered by the watermarks;</li>
+ *   <li>transform: {@code transformThreads} threads drop unchanged rows (fingerprints) and route
+ *   the rows to the loaders;</li>
+ *   <li>load: {@code loadThreads} threads each upsert their rows on their own pooled connection,
+ *   starting once the dimensions are committed.</li>
+ * </ul>
+ * Stages are connected by queues of {@code queueCapacity} chunks; a full queue blocks its producer,
+ * so the slowest stage sets the pace and memory stays bounded. Rows are routed by station, so
+ * the rows of one station are filtered and loaded in file order.
+ */
+public final class PipelineExecutor {
+    private static final Logger LOGGER = LoggingUtil.getLogger(PipelineExecutor.class);
+
+    private static final MesureBatch END_OF_INPUT = new MesureBatch(1);
+    private static final MesureBatch ABORTED = new MesureBatch(1);
+
+    private final int extractThreads;
+    private final int transformThreads;
+    private final int loadThreads;
+    private final int queueCapacity;
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final LongAdder extractNanos = new LongAdder();
+    private final LongAdder transformNanos = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder extracted = new LongAdder();
+    private final LongAdder loaded = new LongAdder();
+
+    public PipelineExecutor(int extractThreads, int transformThreads, int loadThreads, int queueCapacity) {
+        if (extractThreads < 1 || transformThreads < 1 || loadThreads < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Every stage needs at least one thread: extract=%d, transform=%d, load=%d",
+                    extractThreads, transformThreads, loadThreads));
+        }
+        this.extractThreads = extractThreads;
+        this.transformThreads = transformThreads;
+        this.loadThreads = loadThreads;
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    public void run(
+            StationExtractor stations,
+            MesureExtractor source,
+            StationWatermarks watermarks,
+            RowFingerprints fingerprints,
+            RunReport report) {
+
+        LOGGER.info(() -> String.format("Starting pipelined ETL: %d extract, %d transform, %d load threads, queues of %d chunks",
+                extractThreads, transformThreads, loadThreads, queueCapacity));
+
+        List<BlockingQueue<MesureBatch>> transformQueues = createQueues(transformThreads);
+        List<BlockingQueue<MesureBatch>> loadQueues = createQueues(loadThreads);
+        CompletableFuture<Void> dimensionsLoaded = new CompletableFuture<>();
+        AtomicInteger runningTransforms = new AtomicInteger(transformThreads);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<StationData> stationData = executor.submit(stations::extract);
+            executor.submit(() -> loadDimensions(stationData, source, fingerprints, dimensionsLoaded));
+            executor.submit(() -> extract(source, watermarks, transformQueues));
+            for (int i = 0; i < transformThreads; i++) {
+                BlockingQueue<MesureBatch> input = transformQueues.get(i);
+                executor.submit(() -> transform(input, fingerprints, loadQueues, runningTransforms));
+            }
+            for (int i = 0; i < loadThreads; i++) {
+                int partition = i;
+                executor.submit(() -> load(partition, loadQueues.get(partition), dimensionsLoaded));
+            }
+        }
+
+        report.setExtractNanos(extractNanos.sum());
+        report.setFilterNanos(transformNanos.sum());
+        report.setLoadNanos(loadNanos.sum());
+        report.setMeasuresExtracted(extracted.sum());
+        report.setMeasuresLoaded(loaded.sum());
+
+        Throwable error = failure.get();
+        if (error != null) {
+            throw error instanceof RuntimeException e ? e : new RuntimeException("Pipelined ETL failed: " + error.getMessage(), error);
+        }
+        LOGGER.info(() -> String.format("Pipelined ETL completed: %d of %d measures sent", loaded.sum(), extracted.sum()));
+    }
+
+    private void loadDimensions(
+            Future<StationData> stationData,
+            MesureExtractor source,
+            RowFingerprints fingerprints,
+            CompletableFuture<Void> dimensionsLoaded) {
+        try {
+            long start = System.nanoTime();
+            MesureData mesureDimensions = DataExtractor.readMesureDimensions(source);
+            CsvData dimensions = DataExtractor.combineData(stationData.get(), mesureDimensions, source.isPartial());
+            extractNanos.add(System.nanoTime() - start);
+
+            start = System.nanoTime();
+            CsvData changed = fingerprints.filter(dimensions);
+            transformNanos.add(System.nanoTime() - start);
+
+            start = System.nanoTime();
+            DataLoader.loadDimensions(changed);
+            loadNanos.add(System.nanoTime() - start);
+            dimensionsLoaded.complete(null);
+        } catch (ExecutionException e) {
+            fail("Station extraction", e.getCause());
+            dimensionsLoaded.completeExceptionally(e.getCause());
+        } catch (Throwable t) {
+            if (t instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            fail("Dimension load", t);
+            dimensionsLoaded.completeExceptionally(t);
+        }
+    }
+
+    private void extract(
+            MesureExtractor source,
+            StationWatermarks watermarks,
+            List<BlockingQueue<MesureBatch>> transformQueues) {
+
+        MesureBatch terminator = END_OF_INPUT;
+        try (Stream<MesureBatch> chunks = DataExtractor.streamMeasures(source, watermarks, extractThreads)) {
+            Iterator<MesureBatch> iterator = chunks.iterator();
+            while (failure.get() == null) {
+                long start = System.nanoTime();
+                boolean more = iterator.hasNext();
+                MesureBatch chunk = more ? iterator.next() : null;
+                extractNanos.add(System.nanoTime() - start);
+                if (!more) {
+                    break;
+                }
+                extracted.add(chunk.size());
+                route(chunk, transformQueues);
+            }
+        } catch (Throwable t) {
+            if (t instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            fail("Measure extraction", t);
+        } finally {
+            if (failure.get() != null) {
+                terminator = ABORTED;
+            }
+            for (BlockingQueue<MesureBatch> queue : transformQueues) {
+                putUninterruptibly(queue, terminator);
+            }
+        }
+    }
+
+    private void transform(
+            BlockingQueue<MesureBatch> input,
+            RowFingerprints fingerprints,
+            List<BlockingQueue<MesureBatch>> loadQueues,
+            AtomicInteger runningTransforms) {
+
+        QueueIterator chunks = new QueueIterator(input);
+        try {
+            while (chunks.hasNext()) {
+                MesureBatch chunk = chunks.next();
+                if (failure.get() != null) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                MesureBatch changed = fingerprints.filter(chunk);
+                transformNanos.add(System.nanoTime() - start);
+                if (!changed.isEmpty()) {
+                    route(changed, loadQueues);
+                }
+            }
+        } catch (Throwable t) {
+            if (t instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            fail("Change detection", t);
+        } finally {
+            chunks.drain();
+            if (runningTransforms.decrementAndGet() == 0) {
+                MesureBatch terminator = failure.get() == null ? END_OF_INPUT : ABORTED;
+                for (BlockingQueue<MesureBatch> queue : loadQueues) {
+                    putUninterruptibly(queue, terminator);
+                }
+            }
+        }
+    }
+
+    private void load(int partition, BlockingQueue<MesureBatch> input, CompletableFuture<Void> dimensionsLoaded) {
+        QueueIterator batches = new QueueIterator(input);
+        try {
+            dimensionsLoaded.join();
+            long start = System.nanoTime();
+            long rows = DataLoader.loadPartition(partition, new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    if (failure.get() != null) {
+                        throw new IllegalStateException("Pipeline aborted by another stage");
+                    }
+                    return batches.hasNext();
+                }
+
+                @Override
+                public MesureBatch next() {
+                    return batches.next();
+                }
+            });
+            loadNanos.add(System.nanoTime() - start - batches.waitNanos);
+            loaded.add(rows);
+        } catch (Throwable t) {
+            fail("Load partition " + partition, t);
+        } finally {
+            batches.drain();
+        }
+    }
+
+    /** Splits {@code chunk} by station so that each station always goes to the same queue. */
+    private static void route(MesureBatch chunk, List<BlockingQueue<MesureBatch>> queues) throws InterruptedException {
+        int count = queues.size();
+        if (count == 1) {
+            queues.getFirst().put(chunk);
+            return;
+        }
+        List<MesureBatch> split = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            split.add(new MesureBatch(chunk.size() / count + 1));
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            split.get(Math.floorMod(mix(chunk.getStationId(i)), count)).addFrom(chunk, i);
+        }
+        for (int i = 0; i < count; i++) {
+            if (!split.get(i).isEmpty()) {
+                queues.get(i).put(split.get(i));
+            }
+        }
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void fail(String stage, Throwable t) {
+        Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+        if (failure.compareAndSet(null, cause)) {
+            LOGGER.log(Level.SEVERE, stage + " failed; aborting the pipeline: " + cause.getMessage(), cause);
+        }
+    }
+
+    private List<BlockingQueue<MesureBatch>> createQueues(int count) {
+        List<BlockingQueue<MesureBatch>> queues = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+        return queues;
+    }
+
+    private static void putUninterruptibly(BlockingQueue<MesureBatch> queue, MesureBatch item) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Consumes a queue up to its terminator; {@link #drain()} unblocks the producer after a failure. */
+    private static final class QueueIterator implements Iterator<MesureBatch> {
+        private final BlockingQueue<MesureBatch> queue;
+        private MesureBatch next;
+        private boolean finished;
+        private long waitNanos;
+
+        private QueueIterator(BlockingQueue<MesureBatch> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (finished) {
+                return false;
+            }
+            if (next == null) {
+                next = take();
+            }
+            if (next == ABORTED) {
+                finished = true;
+                throw new IllegalStateException("Pipeline input aborted before end of stream");
+            }
+            if (next == END_OF_INPUT) {
+                finished = true;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public MesureBatch next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            MesureBatch batch = next;
+            next = null;
+            return batch;
+        }
+
+        private void drain() {
+            while (!finished) {
+                MesureBatch item = take();
+                finished = item == END_OF_INPUT || item == ABORTED;
+            }
+        }
+
+        private MesureBatch take() {
+            long start = System.nanoTime();
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for measures", e);
+            } finally {
+                waitNanos += System.nanoTime() - start;
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package Etl.State;
+
+import Models.MesureBatch;
+import Utils.Database.CommitHooks;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * The measurements a run extracted but did not write (orphans, rows failing a constraint), so the
+ * watermarks and fingerprints saved after the load do not cover them and the next run sends them
+ * again. Rows count once their quarantine has committed; nothing is kept outside a run.
+ */
+public final class RejectedMeasures {
+    private static MesureBatch collected;
+
+    private RejectedMeasures() { /* no instantiation */ }
+
+    /** Starts collecting for a run, forgetting what a previous run left. */
+    public static synchronized void open() {
+        collected = new MesureBatch();
+    }
+
+    /** Records {@code rows} once the current transaction of {@code conn} commits. */
+    public static void add(Connection conn, MesureBatch rows) throws SQLException {
+        if (!rows.isEmpty()) {
+            CommitHooks.afterCommit(conn, () -> add(rows));
+        }
+    }
+
+    private static synchronized void add(MesureBatch rows) {
+        if (collected != null) {
+            collected.addAll(rows);
+        }
+    }
+
+    /** Stops collecting and returns the rows rejected since {@link #open}. */
+    public static synchronized MesureBatch close() {
+        MesureBatch rows = collected == null ? new MesureBatch() : collected;
+        collected = null;
+        return rows;
+    }
+}
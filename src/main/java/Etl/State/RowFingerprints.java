@@ -0,0 +1,374 @@
+package Etl.State;
+
+import Models.Etl.Extractors.Dto.CsvData;
+import Models.Etl.Utils.EtlStage;
+import Models.MesureBatch;
+import Models.Municipalite;
+import Models.Polluant;
+import Models.Station;
+import Models.TypeMilieu;
+import Utils.Collections.LongLongHashMap;
+import Utils.Database.DatabaseUtil;
+import Utils.Encoding.Fingerprint;
+import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
+import Utils.Time.EpochDayUtil;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+import java.util.logging.Logger;
+
+/**
+ * Change detection for the upserts: keeps a 64-bit fingerprint per primary key in
+ * {@code etl_fingerprint} and drops rows whose fingerprint did not change since the last
+ * successful load, so unchanged rows are never sent to the database. The rows of one key must
+ * be filtered in file order for the last value to win.
+ * <p>
+ * Measurements are sharded by station, each shard with its own maps and lock, so transform
+ * threads filtering different stations do not wait on each other. Shards use the station hash
+ * the pipeline routes by: with a power-of-two number of transform threads, each thread owns its
+ * shards outright. The dimension tables, filtered once per run, share one lock.
+ */
+public final class RowFingerprints {
+    private static final Logger LOGGER = LoggingUtil.getLogger(RowFingerprints.class);
+
+    private static final int SAVE_BATCH_SIZE = 5_000;
+    private static final int MESURE_SHARDS = 64;
+
+    private static final String CREATE_TABLE_SQL = """
+        CREATE TABLE IF NOT EXISTS etl_fingerprint (
+            table_name   VARCHAR(32) NOT NULL,
+            row_key      BIGINT NOT NULL,
+            fingerprint  BIGINT NOT NULL,
+            PRIMARY KEY (table_name, row_key)
+        )
+        """;
+
+    private enum Table {
+        TYPE_MILIEU("type_milieu"),
+        MUNICIPALITE("municipalite"),
+        STATION("station"),
+        POLLUANT("polluant"),
+        MESURE("mesure");
+
+        private final String tableName;
+
+        Table(String tableName) {
+            this.tableName = tableName;
+        }
+    }
+
+    /** Fingerprints of one table, or of the measurements of one shard of stations. */
+    private static final class Fingerprints {
+        private final LongLongHashMap loaded = new LongLongHashMap();
+        private final LongLongHashMap pending = new LongLongHashMap();
+        private final ReentrantLock lock = new ReentrantLock();
+        private long sent;
+        private long skipped;
+
+        private boolean changed(long key, long fingerprint) {
+            boolean changed = pending.containsKey(key)
+                    ? pending.get(key, 0) != fingerprint
+                    : !loaded.containsKey(key) || loaded.get(key, 0) != fingerprint;
+            if (changed) {
+                pending.put(key, fingerprint);
+                sent++;
+            } else {
+                skipped++;
+            }
+            return changed;
+        }
+
+        private void commit() {
+            loaded.putAll(pending);
+            pending.clear();
+        }
+    }
+
+    private final boolean enabled;
+    private final Map<Table, Fingerprints> dimensions = new EnumMap<>(Table.class);
+    private final Fingerprints[] mesureShards = new Fingerprints[MESURE_SHARDS];
+
+    private RowFingerprints(boolean enabled) {
+        this.enabled = enabled;
+        for (Table table : Table.values()) {
+            if (table != Table.MESURE) {
+                dimensions.put(table, new Fingerprints());
+            }
+        }
+        for (int i = 0; i < MESURE_SHARDS; i++) {
+            mesureShards[i] = new Fingerprints();
+        }
+    }
+
+    /** Pass-through instance: every row is sent and nothing is recorded. */
+    public static RowFingerprints disabled() {
+        return new RowFingerprints(false);
+    }
+
+    /** Sends every row (full refresh) but records the fingerprints after the load. */
+    public static RowFingerprints empty() {
+        return new RowFingerprints(true);
+    }
+
+    public static RowFingerprints load() {
+        RowFingerprints fingerprints = new RowFingerprints(true);
+        Map<String, Table> byName = new HashMap<>();
+        for (Table table : Table.values()) {
+            byName.put(table.tableName, table);
+        }
+
+        DatabaseUtil.runTransaction(connection -> {
+            ensureTable(connection);
+            try (Statement st = connection.createStatement()) {
+                st.setFetchSize(SAVE_BATCH_SIZE);
+                try (ResultSet rs = st.executeQuery("SELECT table_name, row_key, fingerprint FROM etl_fingerprint")) {
+                    while (rs.next()) {
+                        Table table = byName.get(rs.getString(1));
+                        if (table != null) {
+                            fingerprints.of(table, rs.getLong(2)).loaded.put(rs.getLong(2), rs.getLong(3));
+                        }
+                    }
+                }
+            }
+        });
+
+        LOGGER.info(() -> "Loaded fingerprints: " + fingerprints.describeLoaded());
+        return fingerprints;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Returns a copy of {@code data} keeping only new or changed rows. */
+    public CsvData filter(CsvData data) {
+        if (!enabled) {
+            return data;
+        }
+        CsvData.CsvDataBuilder changed = CsvData.builder();
+        synchronized (dimensions) {
+            changed.typeMilieux(filter(Table.TYPE_MILIEU, data.getTypeMilieux(),
+                        TypeMilieu::getTypeMilieuId, RowFingerprints::fingerprintOf))
+                    .municipalites(filter(Table.MUNICIPALITE, data.getMunicipalites(),
+                            Municipalite::getMunicipaliteId, RowFingerprints::fingerprintOf))
+                    .stations(filter(Table.STATION, data.getStations(),
+                            Station::getStationId, RowFingerprints::fingerprintOf))
+                    .pollutants(filter(Table.POLLUANT, data.getPollutants(),
+                            p -> Fingerprint.of(p.getCodePolluant()), RowFingerprints::fingerprintOf));
+        }
+        return changed
+                .measures(filter(data.getMeasures()))
+                .firstEpochDay(data.getFirstEpochDay())
+                .lastEpochDay(data.getLastEpochDay())
+                .build();
+    }
+
+    /** Locks the shard of each run of rows of the same station, so threads on other stations go on. */
+    public MesureBatch filter(MesureBatch measures) {
+        if (!enabled) {
+            return measures;
+        }
+
+        long start = System.nanoTime();
+        MesureBatch kept = null;
+        Fingerprints shard = null;
+        try {
+            for (int i = 0; i < measures.size(); i++) {
+                Fingerprints rowShard = shardOf(measures.getStationId(i));
+                if (rowShard != shard) {
+                    if (shard != null) {
+                        shard.lock.unlock();
+                    }
+                    shard = rowShard;
+                    shard.lock.lock();
+                }
+                boolean changed = measures.getEpochDay(i) == EpochDayUtil.NO_DATE
+                        || shard.changed(measures.getKey(i), mesureFingerprint(measures, i));
+                if (kept == null && !changed) {
+                    kept = i == 0 ? new MesureBatch(measures.size()) : measures.slice(0, i);
+                } else if (kept != null && changed) {
+                    kept.addFrom(measures, i);
+                }
+            }
+        } finally {
+            if (shard != null) {
+                shard.lock.unlock();
+            }
+        }
+        EtlMetrics.record(EtlStage.TRANSFORM, start, measures.size());
+        return kept == null ? measures : kept;
+    }
+
+    private <T> List<T> filter(Table table, List<T> rows, ToLongFunction<T> key, ToLongFunction<T> fingerprint) {
+        Fingerprints fingerprints = dimensions.get(table);
+        List<T> kept = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            if (fingerprints.changed(key.applyAsLong(row), fingerprint.applyAsLong(row))) {
+                kept.add(row);
+            }
+        }
+        return kept;
+    }
+
+    private Fingerprints of(Table table, long key) {
+        return table == Table.MESURE ? shardOf((int) (key >>> 32)) : dimensions.get(table);
+    }
+
+    /** Same station hash as the pipeline's routing. */
+    private Fingerprints shardOf(int stationId) {
+        int h = stationId * 0x9E3779B9;
+        return mesureShards[(h ^ (h >>> 16)) & (MESURE_SHARDS - 1)];
+    }
+
+    /** Forgets the fingerprints of {@code rejected}, which were sent but not written, so they count as changed next time. */
+    public void exclude(MesureBatch rejected) {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < rejected.size(); i++) {
+            Fingerprints shard = shardOf(rejected.getStationId(i));
+            shard.lock.lock();
+            try {
+                shard.pending.remove(rejected.getKey(i));
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Persists the fingerprints of the rows sent by this run. Call only after they were committed,
+     * once no thread filters any more.
+     */
+    public void save() {
+        if (!enabled) {
+            return;
+        }
+        LOGGER.info(() -> "Row fingerprints (sent/skipped): " + describeCounts());
+
+        var sql = """
+            INSERT INTO etl_fingerprint
+              (table_name, row_key, fingerprint)
+            VALUES (?, ?, ?)
+            ON CONFLICT (table_name, row_key) DO UPDATE
+            SET fingerprint = EXCLUDED.fingerprint
+            """;
+
+        DatabaseUtil.runTransaction(connection -> {
+            ensureTable(connection);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (Table table : Table.values()) {
+                    for (Fingerprints fingerprints : fingerprintsOf(table)) {
+                        saveTable(ps, table, fingerprints.pending);
+                    }
+                }
+            }
+        });
+
+        dimensions.values().forEach(Fingerprints::commit);
+        for (Fingerprints shard : mesureShards) {
+            shard.commit();
+        }
+    }
+
+    /** Forgets the fingerprints recorded since the last save, after a failed load. */
+    public void discard() {
+        dimensions.values().forEach(fingerprints -> fingerprints.pending.clear());
+        for (Fingerprints shard : mesureShards) {
+            shard.pending.clear();
+        }
+    }
+
+    private List<Fingerprints> fingerprintsOf(Table table) {
+        return table == Table.MESURE ? List.of(mesureShards) : List.of(dimensions.get(table));
+    }
+
+    private void saveTable(PreparedStatement ps, Table table, LongLongHashMap pending) throws SQLException {
+        int[] batched = {0};
+        SQLException[] failure = {null};
+        pending.forEach((key, fingerprint) -> {
+            if (failure[0] != null) {
+                return;
+            }
+            try {
+                ps.setString(1, table.tableName);
+                ps.setLong(2, key);
+                ps.setLong(3, fingerprint);
+                ps.addBatch();
+                if (++batched[0] % SAVE_BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                }
+            } catch (SQLException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        ps.executeBatch();
+    }
+
+    private static void ensureTable(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute(CREATE_TABLE_SQL);
+        }
+    }
+
+    private static long mesureFingerprint(MesureBatch measures, int index) {
+        long h = Fingerprint.add(Fingerprint.SEED, measures.getPolluant(index).ordinal());
+        return Fingerprint.add(h, measures.getValeur(index));
+    }
+
+    private static long fingerprintOf(TypeMilieu t) {
+        return Fingerprint.add(Fingerprint.SEED, t.getNom());
+    }
+
+    private static long fingerprintOf(Municipalite m) {
+        return Fingerprint.add(Fingerprint.SEED, m.getNom());
+    }
+
+    private static long fingerprintOf(Polluant p) {
+        return Fingerprint.add(Fingerprint.SEED, p.getDescription());
+    }
+
+    private static long fingerprintOf(Station s) {
+        long h = Fingerprint.add(Fingerprint.SEED, s.getAdresse());
+        h = Fingerprint.add(h, s.getLatitude());
+        h = Fingerprint.add(h, s.getLongitude());
+        h = Fingerprint.add(h, s.getXCoord());
+        h = Fingerprint.add(h, s.getYCoord());
+        h = Fingerprint.add(h, s.getDateOuverture());
+        h = Fingerprint.add(h, s.getDateFermeture());
+        h = Fingerprint.add(h, s.getMunicipaliteId());
+        return Fingerprint.add(h, s.getTypeMilieuId());
+    }
+
+    private String describeLoaded() {
+        StringBuilder sb = new StringBuilder();
+        for (Table table : Table.values()) {
+            long size = fingerprintsOf(table).stream().mapToLong(fingerprints -> fingerprints.loaded.size()).sum();
+            sb.append(sb.isEmpty() ? "" : ", ").append(table.tableName).append('=').append(size);
+        }
+        return sb.toString();
+    }
+
+    private String describeCounts() {
+        StringBuilder sb = new StringBuilder();
+        for (Table table : Table.values()) {
+            long sent = fingerprintsOf(table).stream().mapToLong(fingerprints -> fingerprints.sent).sum();
+            long skipped = fingerprintsOf(table).stream().mapToLong(fingerprints -> fingerprints.skipped).sum();
+            sb.append(sb.isEmpty() ? "" : ", ").append(table.tableName).append('=').append(sent).append('/').append(skipped);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,203 @@
+package Etl.State;
+
+import Models.Etl.Utils.EtlStage;
+import Models.MesureBatch;
+import Utils.Database.DatabaseUtil;
+import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
+import Utils.Time.EpochDayUtil;
+import Utils.Time.SqlDateCache;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Per-station high-water mark of the last loaded (date, heure), stored in {@code etl_watermark}.
+ * Measurements at or below a station's mark are dropped during extraction; the marks of the rows
+ * that pass are tracked and persisted once the load has succeeded. Not thread-safe: filter from
+ * the thread that consumes the extracted batches.
+ */
+public final class StationWatermarks {
+    private static final Logger LOGGER = LoggingUtil.getLogger(StationWatermarks.class);
+
+    private static final String CREATE_TABLE_SQL = """
+        CREATE TABLE IF NOT EXISTS etl_watermark (
+            station_id  INTEGER PRIMARY KEY,
+            last_date   DATE NOT NULL,
+            last_heure  SMALLINT NOT NULL,
+            updated_at  TIMESTAMP NOT NULL DEFAULT now()
+        )
+        """;
+
+    private final boolean enabled;
+    private final Map<Integer, Integer> loadedMarks;
+    private final Map<Integer, Integer> pendingMarks = new HashMap<>();
+    private long skippedRows;
+
+    private StationWatermarks(boolean enabled, Map<Integer, Integer> loadedMarks) {
+        this.enabled = enabled;
+        this.loadedMarks = loadedMarks;
+    }
+
+    /** Pass-through instance: filters nothing and never touches the database. */
+    public static StationWatermarks disabled() {
+        return new StationWatermarks(false, Map.of());
+    }
+
+    /** Ignores stored marks (full refresh) but still records the new ones after the load. */
+    public static StationWatermarks empty() {
+        return new StationWatermarks(true, new HashMap<>());
+    }
+
+    public static StationWatermarks load() {
+        Map<Integer, Integer> marks = new HashMap<>();
+        DatabaseUtil.runTransaction(connection -> {
+            ensureTable(connection);
+            try (Statement st = connection.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT station_id, last_date, last_heure FROM etl_watermark")) {
+                while (rs.next()) {
+                    int epochDay = (int) rs.getDate(2).toLocalDate().toEpochDay();
+                    marks.put(rs.getInt(1), hourIndex(epochDay, rs.getInt(3)));
+                }
+            }
+        });
+        LOGGER.info("Loaded watermarks for " + marks.size() + " stations");
+        return new StationWatermarks(true, marks);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getSkippedRows() {
+        return skippedRows;
+    }
+
+    /** Returns the rows newer than their station's mark, or {@code measures} itself when all are new. */
+    public MesureBatch filter(MesureBatch measures) {
+        if (!enabled) {
+            return measures;
+        }
+
+        long start = System.nanoTime();
+        MesureBatch kept = null;
+        for (int i = 0; i < measures.size(); i++) {
+            boolean isNew = isNew(measures, i);
+            if (isNew) {
+                track(measures, i);
+            }
+            if (kept == null && !isNew) {
+                kept = i == 0 ? new MesureBatch(measures.size()) : measures.slice(0, i);
+            } else if (kept != null && isNew) {
+                kept.addFrom(measures, i);
+            }
+        }
+
+        EtlMetrics.record(EtlStage.TRANSFORM, start, measures.size());
+        if (kept == null) {
+            return measures;
+        }
+        skippedRows += measures.size() - kept.size();
+        return kept;
+    }
+
+    private boolean isNew(MesureBatch measures, int index) {
+        int epochDay = measures.getEpochDay(index);
+        if (epochDay == EpochDayUtil.NO_DATE) {
+            return true;
+        }
+        Integer mark = loadedMarks.get(measures.getStationId(index));
+        return mark == null || hourIndex(epochDay, measures.getHeure(index)) > mark;
+    }
+
+    private void track(MesureBatch measures, int index) {
+        int epochDay = measures.getEpochDay(index);
+        if (epochDay != EpochDayUtil.NO_DATE) {
+            pendingMarks.merge(measures.getStationId(index), hourIndex(epochDay, measures.getHeure(index)), Math::max);
+        }
+    }
+
+    /**
+     * Holds each station's mark below the earliest of {@code rejected}, which were sent but not
+     * written, so the next run sends them again along with the rows after them.
+     */
+    public void exclude(MesureBatch rejected) {
+        if (!enabled || rejected.isEmpty()) {
+            return;
+        }
+        Map<Integer, Integer> earliest = new HashMap<>();
+        for (int i = 0; i < rejected.size(); i++) {
+            int epochDay = rejected.getEpochDay(i);
+            if (epochDay != EpochDayUtil.NO_DATE) {
+                earliest.merge(rejected.getStationId(i), hourIndex(epochDay, rejected.getHeure(i)), Math::min);
+            }
+        }
+        earliest.forEach((stationId, hourIndex) -> pendingMarks.computeIfPresent(stationId, (id, mark) -> {
+            int held = Math.min(mark, hourIndex - 1);
+            Integer loaded = loadedMarks.get(id);
+            return loaded != null && held <= loaded ? null : held;
+        }));
+    }
+
+    /** Persists the marks reached by this run. Call only after the measurements were committed. */
+    public void save() {
+        if (!enabled) {
+            return;
+        }
+        if (pendingMarks.isEmpty()) {
+            LOGGER.info("No watermark to advance (" + skippedRows + " already loaded rows skipped)");
+            return;
+        }
+
+        var sql = """
+            INSERT INTO etl_watermark
+              (station_id, last_date, last_heure, updated_at)
+            VALUES (?, ?, ?, now())
+            ON CONFLICT (station_id) DO UPDATE
+            SET last_date = EXCLUDED.last_date,
+                last_heure = EXCLUDED.last_heure,
+                updated_at = EXCLUDED.updated_at
+            WHERE (etl_watermark.last_date, etl_watermark.last_heure)
+                < (EXCLUDED.last_date, EXCLUDED.last_heure)
+            """;
+
+        DatabaseUtil.runTransaction(connection -> {
+            ensureTable(connection);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (Map.Entry<Integer, Integer> entry : pendingMarks.entrySet()) {
+                    int hourIndex = entry.getValue();
+                    ps.setInt(1, entry.getKey());
+                    ps.setDate(2, SqlDateCache.get(Math.floorDiv(hourIndex, 24)));
+                    ps.setShort(3, (short) Math.floorMod(hourIndex, 24));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+
+        LOGGER.info(String.format("Advanced watermarks for %d stations (%d already loaded rows skipped)",
+                pendingMarks.size(), skippedRows));
+        loadedMarks.putAll(pendingMarks);
+        pendingMarks.clear();
+    }
+
+    /** Forgets the marks tracked since the last save, after a failed load. */
+    public void discard() {
+        pendingMarks.clear();
+    }
+
+    private static void ensureTable(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute(CREATE_TABLE_SQL);
+        }
+    }
+
+    private static int hourIndex(int epochDay, int heure) {
+        return epochDay * 24 + heure;
+    }
+}
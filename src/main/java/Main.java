@@ -1,7 +1,27 @@
+import Api.ReadService;
+import Etl.Daemon.IngestionDaemon;
 import Etl.EtlRunner;
+import Utils.Metrics.EtlMetrics;
+
+import static Utils.Env.EnvUtil.getBoolean;
 
 public class Main {
     public static void main(String[] args) {
-        EtlRunner.start();
+        boolean success = true;
+        EtlMetrics.start();
+        ReadService.start();
+        try {
+            if (getBoolean("ETL_DAEMON", false)) {
+                IngestionDaemon.run();
+            } else {
+                success = EtlRunner.start();
+            }
+        } finally {
+            ReadService.stop();
+            EtlMetrics.stop();
+        }
+        if (!success) {
+            System.exit(1);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package Models.Api.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyStationResponse {
+    private StationResponse station;
+    private double distanceKm;
+}
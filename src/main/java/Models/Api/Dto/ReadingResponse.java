@@ -0,0 +1,17 @@
+package Models.Api.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadingResponse {
+    private String date;
+    private int heure;
+    private String codePolluant;
+    private Integer valeur;
+}
@@ -0,0 +1,19 @@
+package Models.Api.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/** The readings of the last {@code hours} hours of a station, ending at its latest reading. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeriesResponse {
+    private int stationId;
+    private int hours;
+    private List<ReadingResponse> readings;
+}
@@ -0,0 +1,27 @@
+package Models.Api.Dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A {@code station} row as served by the read service; dates are ISO strings. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StationResponse {
+    private int stationId;
+    private String adresse;
+    private double latitude;
+    private double longitude;
+    @JsonProperty("xCoord")
+    private double xCoord;
+    @JsonProperty("yCoord")
+    private double yCoord;
+    private String dateOuverture;
+    private String dateFermeture;
+    private int municipaliteId;
+    private int typeMilieuId;
+}
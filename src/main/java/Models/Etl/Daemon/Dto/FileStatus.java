@@ -0,0 +1,24 @@
+package Models.Etl.Daemon.Dto;
+
+import Models.Etl.Utils.FileState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileStatus {
+    private String path;
+    private FileState state;
+    private long processedBytes;
+    private long rowsLoaded;
+    private int runs;
+    private long lastRunMillis;
+    private String lastError;
+    private Instant updatedAt;
+}
@@ -0,0 +1,26 @@
+package Models.Etl.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row counts and wall-clock time per stage of one ETL run. In streaming mode measurements are
+ * read while they are loaded, so the read time is taken out of the load time; with
+ * {@code LOAD_PARALLELISM} above 1 the stages overlap and do not add up to the total. With
+ * {@code ETL_PIPELINE} each stage reports its busy time summed over its threads.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RunReport {
+    private long measuresExtracted;
+    private long measuresLoaded;
+    private long extractNanos;
+    private long filterNanos;
+    private long loadNanos;
+    private long saveStateNanos;
+    private long totalNanos;
+}
@@ -1,10 +1,11 @@
 package Models.Etl.Extractors.Dto;
 
-import Models.Mesure;
+import Models.MesureBatch;
 import Models.Municipalite;
 import Models.Polluant;
 import Models.Station;
 import Models.TypeMilieu;
+import Utils.Time.EpochDayUtil;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -26,11 +27,18 @@ public class CsvData {
     private List<Polluant> pollutants = new ArrayList<>();
 
     @Builder.Default
-    private List<Mesure> measures = new ArrayList<>();
+    private MesureBatch measures = new MesureBatch();
 
     @Builder.Default
     private List<Municipalite> municipalites = new ArrayList<>();
 
     @Builder.Default
     private List<TypeMilieu> typeMilieux = new ArrayList<>();
+
+    /** First and last measurement day seen, as epoch days; {@code NO_DATE} when unknown. */
+    @Builder.Default
+    private int firstEpochDay = EpochDayUtil.NO_DATE;
+
+    @Builder.Default
+    private int lastEpochDay = EpochDayUtil.NO_DATE;
 }
\ No newline at end of file
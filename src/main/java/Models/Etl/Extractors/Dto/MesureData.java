@@ -1,8 +1,9 @@
 package Models.Etl.Extractors.Dto;
 
-import Models.Mesure;
+import Models.MesureBatch;
 import Models.Polluant;
 import Models.Station;
+import Utils.Time.EpochDayUtil;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -25,5 +26,12 @@ public class MesureData {
     private List<Polluant> pollutants = new ArrayList<>();
 
     @Builder.Default
-    private List<Mesure> measures = new ArrayList<>();
+    private MesureBatch measures = new MesureBatch();
+
+    /** First and last measurement day seen, as epoch days; {@code NO_DATE} when unknown. */
+    @Builder.Default
+    private int firstEpochDay = EpochDayUtil.NO_DATE;
+
+    @Builder.Default
+    private int lastEpochDay = EpochDayUtil.NO_DATE;
 }
\ No newline at end of file
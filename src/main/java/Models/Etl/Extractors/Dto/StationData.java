@@ -1,15 +1,15 @@
 package Models.Etl.Extractors.Dto;
 
 import Models.Station;
+import Utils.Collections.IntIntHashMap;
+import Utils.Encoding.StringDictionary;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Data
 @Builder
@@ -21,14 +21,14 @@ public class StationData {
     private List<Station> stations = new ArrayList<>();
 
     @Builder.Default
-    private Map<Integer, String> stationMunicipalites = new HashMap<>();
+    private IntIntHashMap stationMunicipalites = new IntIntHashMap();
 
     @Builder.Default
-    private Map<Integer, String> stationTypeMilieux = new HashMap<>();
+    private IntIntHashMap stationTypeMilieux = new IntIntHashMap();
 
     @Builder.Default
-    private Map<String, Integer> municipalityIdMap = new HashMap<>();
+    private StringDictionary municipalities = new StringDictionary(1);
 
     @Builder.Default
-    private Map<String, Integer> typeIdMap = new HashMap<>();
+    private StringDictionary typeMilieux = new StringDictionary(1);
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package Models.Etl.Loaders.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommitBoundary {
+    private int sequence;
+    private long rowsInCommit;
+    private long totalRows;
+    private long elapsedMillis;
+}
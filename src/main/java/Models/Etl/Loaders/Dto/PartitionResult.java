@@ -0,0 +1,18 @@
+package Models.Etl.Loaders.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartitionResult {
+    private int partition;
+    private long rowsLoaded;
+    private long elapsedMillis;
+    private boolean success;
+    private String errorMessage;
+}
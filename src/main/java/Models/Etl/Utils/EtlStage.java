@@ -0,0 +1,26 @@
+package Models.Etl.Utils;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * Stages timed by the metrics. With the byte parser, records are decoded while they are read,
+ * so measurement parsing is reported under {@link #READ}; {@link #PARSE} then only covers the
+ * conversion of Jackson records and of the station file. {@link #ROLLUP} is the refresh of the
+ * daily and monthly aggregates after each batch, {@link #VALIDATE} the lookup of each measurement's
+ * station and pollutant before it is sent.
+ */
+@Getter
+public enum EtlStage {
+    READ,
+    PARSE,
+    TRANSFORM,
+    VALIDATE,
+    BIND,
+    EXECUTE,
+    COMMIT,
+    ROLLUP;
+
+    private final String label = name().toLowerCase(Locale.ROOT);
+}
@@ -0,0 +1,8 @@
+package Models.Etl.Utils;
+
+public enum FileState {
+    PENDING,
+    PROCESSING,
+    LOADED,
+    FAILED
+}
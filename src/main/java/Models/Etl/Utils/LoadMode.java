@@ -0,0 +1,24 @@
+package Models.Etl.Utils;
+
+/**
+ * How rows are sent: {@link #BATCH} as JDBC batches of single-row statements, {@link #UNNEST} as
+ * one statement per block whose parameters are whole columns, {@link #COPY} through a staging
+ * table (measurements only).
+ */
+public enum LoadMode {
+    BATCH,
+    COPY,
+    UNNEST;
+
+    public static LoadMode fromString(String value) {
+        if (value == null) {
+            return BATCH;
+        }
+        for (LoadMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        return BATCH;
+    }
+}
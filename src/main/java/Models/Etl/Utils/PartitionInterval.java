@@ -0,0 +1,43 @@
+package Models.Etl.Utils;
+
+import Utils.Time.EpochDayUtil;
+
+/** Range covered by each partition of {@code mesure}, keyed by an integer period. */
+public enum PartitionInterval {
+    MONTH,
+    YEAR;
+
+    public static PartitionInterval fromString(String value) {
+        if (value == null) {
+            return MONTH;
+        }
+        for (PartitionInterval interval : values()) {
+            if (interval.name().equalsIgnoreCase(value.trim())) {
+                return interval;
+            }
+        }
+        return MONTH;
+    }
+
+    public int periodOf(int epochDay) {
+        return switch (this) {
+            case MONTH -> EpochDayUtil.monthIndex(epochDay);
+            case YEAR -> Math.floorDiv(EpochDayUtil.toYearMonthDay(epochDay), 10000);
+        };
+    }
+
+    public int firstDayOf(int period) {
+        return switch (this) {
+            case MONTH -> EpochDayUtil.toEpochDay(Math.floorDiv(period, 12), Math.floorMod(period, 12) + 1, 1);
+            case YEAR -> EpochDayUtil.toEpochDay(period, 1, 1);
+        };
+    }
+
+    /** Table name suffix: {@code 2024_01} by month, {@code 2024} by year. */
+    public String suffixOf(int period) {
+        return switch (this) {
+            case MONTH -> String.format("%04d_%02d", Math.floorDiv(period, 12), Math.floorMod(period, 12) + 1);
+            case YEAR -> String.format("%04d", period);
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package Models.Etl.Utils;
+
+public enum PartitionKey {
+    STATION,
+    MONTH;
+
+    public static PartitionKey fromString(String value) {
+        if (value == null) {
+            return STATION;
+        }
+        for (PartitionKey key : values()) {
+            if (key.name().equalsIgnoreCase(value.trim())) {
+                return key;
+            }
+        }
+        return STATION;
+    }
+}
@@ -2,6 +2,10 @@ package Models.Etl.Utils;
 
 import lombok.Getter;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 @Getter
 public enum PolluantType {
     CO("Monoxyde de carbone"),
@@ -13,6 +17,14 @@ public enum PolluantType {
     PM25("Particules fines (PM2.5)"),
     PM10("Particules grossières (PM10)");
 
+    private static final Map<String, PolluantType> BY_CODE = new HashMap<>();
+
+    static {
+        for (PolluantType type : values()) {
+            BY_CODE.put(type.name(), type);
+        }
+    }
+
     private final String description;
 
     PolluantType(String description) {
@@ -20,10 +32,13 @@ public enum PolluantType {
     }
 
     public static PolluantType fromCode(String code) {
-        try {
-            return valueOf(code.toUpperCase());
-        } catch (IllegalArgumentException | NullPointerException e) {
+        if (code == null) {
             return UNKNOWN;
         }
+        PolluantType type = BY_CODE.get(code);
+        if (type == null) {
+            type = BY_CODE.getOrDefault(code.toUpperCase(Locale.ROOT), UNKNOWN);
+        }
+        return type;
     }
 }
@@ -0,0 +1,169 @@
+package Models;
+
+import Models.Etl.Utils.PolluantType;
+import Utils.Time.EpochDayUtil;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column-oriented block of measurements: one primitive array per column instead of one
+ * {@link Mesure} object per row (about 14 bytes per row).
+ */
+public final class MesureBatch {
+
+    private static final PolluantType[] POLLUANTS = PolluantType.values();
+
+    private int[] stationIds;
+    private int[] epochDays;
+    private byte[] heures;
+    private byte[] polluants;
+    private int[] valeurs;
+    private int size;
+
+    public MesureBatch() {
+        this(16);
+    }
+
+    public MesureBatch(int capacity) {
+        int initial = Math.max(1, capacity);
+        stationIds = new int[initial];
+        epochDays = new int[initial];
+        heures = new byte[initial];
+        polluants = new byte[initial];
+        valeurs = new int[initial];
+    }
+
+    public static MesureBatch of(List<Mesure> measures) {
+        MesureBatch batch = new MesureBatch(measures.size());
+        for (Mesure m : measures) {
+            batch.add(m.getStationId(), EpochDayUtil.toEpochDay(m.getDate()), m.getHeure(),
+                    PolluantType.fromCode(m.getCodePolluant()), m.getValeur());
+        }
+        return batch;
+    }
+
+    public void add(int stationId, int epochDay, int heure, PolluantType polluant, int valeur) {
+        if (size == stationIds.length) {
+            grow(size + 1);
+        }
+        stationIds[size] = stationId;
+        epochDays[size] = epochDay;
+        heures[size] = (byte) heure;
+        polluants[size] = (byte) polluant.ordinal();
+        valeurs[size] = valeur;
+        size++;
+    }
+
+    public void addAll(MesureBatch other) {
+        if (size + other.size > stationIds.length) {
+            grow(size + other.size);
+        }
+        System.arraycopy(other.stationIds, 0, stationIds, size, other.size);
+        System.arraycopy(other.epochDays, 0, epochDays, size, other.size);
+        System.arraycopy(other.heures, 0, heures, size, other.size);
+        System.arraycopy(other.polluants, 0, polluants, size, other.size);
+        System.arraycopy(other.valeurs, 0, valeurs, size, other.size);
+        size += other.size;
+    }
+
+    public void addFrom(MesureBatch other, int index) {
+        if (size == stationIds.length) {
+            grow(size + 1);
+        }
+        stationIds[size] = other.stationIds[index];
+        epochDays[size] = other.epochDays[index];
+        heures[size] = other.heures[index];
+        polluants[size] = other.polluants[index];
+        valeurs[size] = other.valeurs[index];
+        size++;
+    }
+
+    public MesureBatch slice(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Invalid slice [" + from + ", " + to + ") of " + size);
+        }
+        MesureBatch slice = new MesureBatch(to - from);
+        System.arraycopy(stationIds, from, slice.stationIds, 0, to - from);
+        System.arraycopy(epochDays, from, slice.epochDays, 0, to - from);
+        System.arraycopy(heures, from, slice.heures, 0, to - from);
+        System.arraycopy(polluants, from, slice.polluants, 0, to - from);
+        System.arraycopy(valeurs, from, slice.valeurs, 0, to - from);
+        slice.size = to - from;
+        return slice;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, stationIds.length + (stationIds.length >> 1));
+        stationIds = Arrays.copyOf(stationIds, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        heures = Arrays.copyOf(heures, capacity);
+        polluants = Arrays.copyOf(polluants, capacity);
+        valeurs = Arrays.copyOf(valeurs, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getStationId(int index) {
+        return stationIds[checkIndex(index)];
+    }
+
+    public int getEpochDay(int index) {
+        return epochDays[checkIndex(index)];
+    }
+
+    public LocalDate getDate(int index) {
+        return EpochDayUtil.toLocalDate(epochDays[checkIndex(index)]);
+    }
+
+    public int getHeure(int index) {
+        return heures[checkIndex(index)];
+    }
+
+    public PolluantType getPolluant(int index) {
+        return POLLUANTS[polluants[checkIndex(index)]];
+    }
+
+    public String getCodePolluant(int index) {
+        return getPolluant(index).name();
+    }
+
+    public int getValeur(int index) {
+        return valeurs[checkIndex(index)];
+    }
+
+    /**
+     * Primary key (station, date, heure) of row {@code index} packed in a long: the station in
+     * the high 32 bits, the hour since the epoch in the low 32.
+     */
+    public long getKey(int index) {
+        return key(getStationId(index), getEpochDay(index), getHeure(index));
+    }
+
+    public static long key(int stationId, int epochDay, int heure) {
+        return ((long) stationId << 32) | ((epochDay * 24L + heure) & 0xFFFFFFFFL);
+    }
+
+    public Mesure get(int index) {
+        return new Mesure(getStationId(index), getDate(index), getHeure(index), getCodePolluant(index), getValeur(index));
+    }
+
+    private int checkIndex(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "MesureBatch(size=" + size + ")";
+    }
+}
@@ -0,0 +1,53 @@
+package Utils.Database;
+
+import Utils.Logging.LoggingUtil;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Actions to run once the current transaction of a connection has committed, so what they
+ * publish is already visible to other connections. Pending actions are dropped on rollback and
+ * when the connection goes back to the pool.
+ */
+public final class CommitHooks {
+    private static final Logger LOGGER = LoggingUtil.getLogger(CommitHooks.class);
+
+    private static final Map<Connection, List<Runnable>> PENDING = new ConcurrentHashMap<>();
+
+    private CommitHooks() { /* no instances */ }
+
+    /** Runs {@code action} after the next commit of {@code conn}, or now outside a transaction. */
+    public static void afterCommit(Connection conn, Runnable action) throws SQLException {
+        if (conn.getAutoCommit()) {
+            action.run();
+            return;
+        }
+        PENDING.computeIfAbsent(conn, c -> new ArrayList<>()).add(action);
+    }
+
+    /** To be called right after {@code conn.commit()}. */
+    public static void committed(Connection conn) {
+        List<Runnable> actions = PENDING.remove(conn);
+        if (actions == null) {
+            return;
+        }
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "After-commit action failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    public static void discard(Connection conn) {
+        PENDING.remove(conn);
+    }
+}
@@ -1,12 +1,22 @@
 package Utils.Database;
 
 import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static Utils.Env.EnvUtil.*;
@@ -14,63 +24,280 @@ import static Utils.Env.EnvUtil.*;
 public final class DataSourceWrapper {
     private static final Logger LOGGER = LoggingUtil.getLogger(DataSourceWrapper.class);
 
-    private static final Deque<Connection> available = new ArrayDeque<>();
-    private static final Deque<Connection> used      = new ArrayDeque<>();
-
     private static final String URL       = getRequired("DB_URL");
     private static final String USER      = getRequired("POSTGRES_USER");
     private static final String PASSWORD  = getRequired("POSTGRES_PASSWORD");
     private static final String SCHEMA    = getRequired("POSTGRES_DB");
     private static final int    POOL_SIZE = getInt("DB_POOL_SIZE", 10);
+    private static final int    MIN_IDLE  = Math.min(POOL_SIZE, getInt("DB_POOL_MIN_IDLE", 2));
+
+    private static final long ACQUIRE_TIMEOUT_MS      = getInt("DB_POOL_ACQUIRE_TIMEOUT_MS", 30_000);
+    private static final long VALIDATION_INTERVAL_MS  = getInt("DB_POOL_VALIDATION_INTERVAL_MS", 30_000);
+    private static final int  VALIDATION_TIMEOUT_SECS = getInt("DB_POOL_VALIDATION_TIMEOUT_SECONDS", 5);
+    private static final long LEAK_THRESHOLD_MS       = getInt("DB_POOL_LEAK_THRESHOLD_MS", 0);
+
+    private static final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private static final Map<Connection, PooledConnection> leased = new ConcurrentHashMap<>();
+    private static final Semaphore permits = new Semaphore(POOL_SIZE, true);
+    private static final AtomicInteger totalConnections = new AtomicInteger();
+    private static final AtomicInteger waitingThreads = new AtomicInteger();
+
+    private static final LongAdder acquisitions = new LongAdder();
+    private static final LongAdder timeouts = new LongAdder();
+    private static final LongAdder connectionsCreated = new LongAdder();
+    private static final LongAdder connectionsReplaced = new LongAdder();
+    private static final LongAdder leaksDetected = new LongAdder();
+    private static final LongAdder totalWaitNanos = new LongAdder();
+    private static final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    private static final ScheduledExecutorService housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "db-pool-housekeeper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static volatile boolean closed;
 
     static {
         initializePool();
+        EtlMetrics.registerPool(DataSourceWrapper::getStats);
     }
 
     private DataSourceWrapper() { /* no instances */ }
 
+    private static final class PooledConnection {
+        private final Connection connection;
+        private volatile long lastValidatedMillis = System.currentTimeMillis();
+        private volatile long leasedAtMillis;
+        private volatile Throwable leaseTrace;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
     private static void initializePool() {
-        for (int i = 0; i < POOL_SIZE; i++) {
-            available.add(createConnection());
+        for (int i = 0; i < MIN_IDLE; i++) {
+            Thread.ofVirtual().name("db-pool-warmup-" + i).start(DataSourceWrapper::warmUpConnection);
         }
-        LOGGER.info("Initialized pool with " + POOL_SIZE + " connections (schema=" + SCHEMA + ")");
+        if (LEAK_THRESHOLD_MS > 0) {
+            long period = Math.max(1_000, LEAK_THRESHOLD_MS / 2);
+            housekeeper.scheduleAtFixedRate(DataSourceWrapper::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+        }
+        LOGGER.info("Initialized pool with max " + POOL_SIZE + " connections, warming up " + MIN_IDLE
+                + " in background (schema=" + SCHEMA + ")");
     }
 
-    private static Connection createConnection() {
+    private static void warmUpConnection() {
+        if (!permits.tryAcquire()) {
+            return;
+        }
         try {
-            return DriverManager.getConnection(URL, USER, PASSWORD);
+            idle.addLast(newPooledConnection());
         } catch (SQLException e) {
-            throw new RuntimeException("Error creating a new connection", e);
+            LOGGER.log(Level.WARNING, "Error warming up connection pool", e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static PooledConnection newPooledConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        totalConnections.incrementAndGet();
+        connectionsCreated.increment();
+        return new PooledConnection(connection);
+    }
+
+    public static Connection getConnection() throws SQLException {
+        return getConnection(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public static Connection getConnection(long timeout, TimeUnit unit) throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is shut down");
+        }
+
+        long start = System.nanoTime();
+        acquirePermit(timeout, unit);
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled = checkOut();
+            pooled.leasedAtMillis = System.currentTimeMillis();
+            pooled.leakReported = false;
+            pooled.leaseTrace = LEAK_THRESHOLD_MS > 0 ? new Throwable("Connection acquired here") : null;
+            leased.put(pooled.connection, pooled);
+            return pooled.connection;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private static void acquirePermit(long timeout, TimeUnit unit) throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+
+        waitingThreads.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(timeout, unit)) {
+                timeouts.increment();
+                throw new SQLException("Timed out after " + unit.toMillis(timeout)
+                        + " ms waiting for a connection (size=" + POOL_SIZE + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        } finally {
+            waitingThreads.decrementAndGet();
+        }
+    }
+
+    private static PooledConnection checkOut() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            discard(pooled);
+            connectionsReplaced.increment();
+            LOGGER.warning("Replaced a broken pooled connection");
         }
+        return newPooledConnection();
     }
 
-    public static synchronized Connection getConnection() throws SQLException {
-        if (available.isEmpty()) {
-            throw new SQLException("Connection pool exhausted (size=" + POOL_SIZE + ")");
+    private static boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.connection.isClosed()) {
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            if (now - pooled.lastValidatedMillis < VALIDATION_INTERVAL_MS) {
+                return true;
+            }
+            if (!pooled.connection.isValid(VALIDATION_TIMEOUT_SECS)) {
+                return false;
+            }
+            pooled.lastValidatedMillis = now;
+            return true;
+        } catch (SQLException e) {
+            return false;
         }
-        Connection c = available.removeFirst();
-        used.add(c);
-        return c;
     }
 
-    public static synchronized void releaseConnection(Connection c) {
+    private static void recordWait(long waitNanos) {
+        acquisitions.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulate(waitNanos);
+        EtlMetrics.poolWait(waitNanos);
+    }
+
+    public static void releaseConnection(Connection c) {
         if (c == null) return;
-        used.remove(c);
-        available.addLast(c);
+
+        PooledConnection pooled = leased.remove(c);
+        if (pooled == null) {
+            LOGGER.warning("Ignoring release of a connection that is not leased from this pool");
+            return;
+        }
+
+        pooled.leaseTrace = null;
+        if (closed || isClosed(c) || !resetSession(c)) {
+            discard(pooled);
+        } else {
+            idle.addFirst(pooled);
+        }
+        permits.release();
+    }
+
+    /**
+     * Rolls back whatever the borrower left open and restores auto-commit, so the next borrower
+     * gets a clean session rather than one idle in a transaction. False if the connection is broken.
+     */
+    private static boolean resetSession(Connection c) {
+        try {
+            if (!c.getAutoCommit()) {
+                c.rollback();
+                c.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Discarding a connection that could not be reset", e);
+            return false;
+        }
+    }
+
+    private static boolean isClosed(Connection c) {
+        try {
+            return c.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        closeQuietly(pooled.connection);
+    }
+
+    private static void detectLeaks() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : leased.values()) {
+            long heldFor = now - pooled.leasedAtMillis;
+            if (!pooled.leakReported && heldFor > LEAK_THRESHOLD_MS) {
+                pooled.leakReported = true;
+                leaksDetected.increment();
+                LOGGER.log(Level.WARNING, "Possible connection leak: connection held for " + heldFor + " ms",
+                        pooled.leaseTrace);
+            }
+        }
+    }
+
+    public static PoolStats getStats() {
+        int total = totalConnections.get();
+        int active = leased.size();
+        return PoolStats.builder()
+                .maxSize(POOL_SIZE)
+                .totalConnections(total)
+                .idleConnections(idle.size())
+                .activeConnections(active)
+                .waitingThreads(waitingThreads.get())
+                .acquisitions(acquisitions.sum())
+                .timeouts(timeouts.sum())
+                .connectionsCreated(connectionsCreated.sum())
+                .connectionsReplaced(connectionsReplaced.sum())
+                .leaksDetected(leaksDetected.sum())
+                .totalWaitNanos(totalWaitNanos.sum())
+                .maxWaitNanos(maxWaitNanos.get())
+                .build();
     }
 
     public static synchronized void shutdown() {
-        used.forEach(DataSourceWrapper::closeQuietly);
-        available.forEach(DataSourceWrapper::closeQuietly);
-        used.clear();
-        available.clear();
+        if (closed) return;
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PoolStats stats = getStats();
+        LOGGER.info(() -> String.format(
+                "Shutting down pool: %d acquisitions, avg wait %.2f ms, max wait %.2f ms, %d timeouts, %d replaced, %d leaks",
+                stats.getAcquisitions(), stats.getAverageWaitMillis(), stats.getMaxWaitNanos() / 1_000_000.0,
+                stats.getTimeouts(), stats.getConnectionsReplaced(), stats.getLeaksDetected()));
+
+        leased.values().forEach(DataSourceWrapper::discard);
+        leased.clear();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
     }
 
     private static void closeQuietly(Connection c) {
         try {
             if (!c.isClosed()) c.close();
         } catch (SQLException e) {
-            LOGGER.log(java.util.logging.Level.WARNING, "Error closing connection", e);
+            LOGGER.log(Level.WARNING, "Error closing connection", e);
         }
     }
 }
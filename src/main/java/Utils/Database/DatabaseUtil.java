@@ -1,6 +1,8 @@
 package Utils.Database;
 
+import Models.Etl.Utils.EtlStage;
 import Utils.Logging.LoggingUtil;
+import Utils.Metrics.EtlMetrics;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -37,12 +39,16 @@ public final class DatabaseUtil {
 
     private static void commitTransaction(Connection connection) throws SQLException {
         if (connection != null) {
+            long start = System.nanoTime();
             connection.commit();
+            EtlMetrics.record(EtlStage.COMMIT, start, 0);
+            CommitHooks.committed(connection);
         }
     }
 
     private static void rollbackTransaction(Connection connection, Throwable error) {
         if (connection != null) {
+            CommitHooks.discard(connection);
             try {
                 connection.rollback();
                 LOGGER.info("Transaction rolled back");
@@ -54,6 +60,7 @@ public final class DatabaseUtil {
 
     private static void releaseConnection(Connection connection) {
         if (connection != null) {
+            CommitHooks.discard(connection);
             try {
                 DataSourceWrapper.releaseConnection(connection);
             } catch (Exception e) {
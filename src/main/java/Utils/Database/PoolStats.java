@@ -0,0 +1,29 @@
+package Utils.Database;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class PoolStats {
+    int maxSize;
+    int totalConnections;
+    int idleConnections;
+    int activeConnections;
+    int waitingThreads;
+    long acquisitions;
+    long timeouts;
+    long connectionsCreated;
+    long connectionsReplaced;
+    long leaksDetected;
+    long totalWaitNanos;
+    long maxWaitNanos;
+
+    public double getUtilization() {
+        return maxSize == 0 ? 0.0 : (double) activeConnections / maxSize;
+    }
+
+    public double getAverageWaitMillis() {
+        return acquisitions == 0 ? 0.0 : totalWaitNanos / 1_000_000.0 / acquisitions;
+    }
+}
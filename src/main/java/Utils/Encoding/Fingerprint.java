@@ -0,0 +1,47 @@
+package Utils.Encoding;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 64-bit content hash built field by field: {@code Fingerprint.add(Fingerprint.add(SEED, a), b)}.
+ * Only meant for change detection, not for security.
+ */
+public final class Fingerprint {
+
+    public static final long SEED = 0xCBF29CE484222325L;
+
+    private static final long NULL_MARKER = 0x9E3779B97F4A7C15L;
+
+    private Fingerprint() { /* no instances */ }
+
+    public static long add(long hash, long value) {
+        long h = (hash ^ value) * 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    public static long add(long hash, double value) {
+        return add(hash, Double.doubleToLongBits(value));
+    }
+
+    public static long add(long hash, Object value) {
+        if (value == null) {
+            return add(hash, NULL_MARKER);
+        }
+        if (value instanceof String text) {
+            return add(hash, of(text));
+        }
+        return add(hash, (long) value.hashCode());
+    }
+
+    /** FNV-1a over the UTF-8 bytes, so the same text always gives the same fingerprint. */
+    public static long of(String text) {
+        long h = SEED;
+        for (byte b : text.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        return add(h, (long) text.length());
+    }
+}
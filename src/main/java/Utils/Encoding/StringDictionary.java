@@ -0,0 +1,143 @@
+package Utils.Encoding;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Interns repeated categorical values (municipalities, environment types, ...) and gives each
+ * one a compact int code. Codes are handed out sequentially from {@code firstCode}, so they can
+ * be used directly as surrogate ids; values are only decoded again when rows are written out.
+ */
+public final class StringDictionary {
+
+    public static final int NO_CODE = Integer.MIN_VALUE;
+
+    private static final int EMPTY = 0;
+
+    private final int firstCode;
+    private String[] values;
+    private int[] slots;
+    private int size;
+    private int nextCode;
+
+    public StringDictionary() {
+        this(0);
+    }
+
+    public StringDictionary(int firstCode) {
+        this.firstCode = firstCode;
+        this.nextCode = firstCode;
+        this.values = new String[16];
+        this.slots = new int[32];
+    }
+
+    public int encode(String value) {
+        Objects.requireNonNull(value, "Dictionary values cannot be null");
+        int slot = findSlot(value);
+        if (slots[slot] != EMPTY) {
+            return slots[slot] - 1 + firstCode;
+        }
+        return insert(value, nextCode, slot);
+    }
+
+    /**
+     * Registers {@code value} under an explicit code. Returns the existing code when the value is
+     * already known, and fails when the code belongs to another value.
+     */
+    public int define(String value, int code) {
+        Objects.requireNonNull(value, "Dictionary values cannot be null");
+        int slot = findSlot(value);
+        if (slots[slot] != EMPTY) {
+            return slots[slot] - 1 + firstCode;
+        }
+        if (code < firstCode) {
+            throw new IllegalArgumentException("Code " + code + " is below the first code " + firstCode);
+        }
+        if (isAssigned(code)) {
+            throw new IllegalArgumentException("Code " + code + " is already assigned to '" + decode(code) + "'");
+        }
+        return insert(value, code, slot);
+    }
+
+    public int codeOf(String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        int slot = findSlot(value);
+        return slots[slot] == EMPTY ? NO_CODE : slots[slot] - 1 + firstCode;
+    }
+
+    public boolean contains(String value) {
+        return codeOf(value) != NO_CODE;
+    }
+
+    public boolean isAssigned(int code) {
+        int index = code - firstCode;
+        return index >= 0 && index < values.length && values[index] != null;
+    }
+
+    public String decode(int code) {
+        return isAssigned(code) ? values[code - firstCode] : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(Entry action) {
+        for (int i = 0; i < nextCode - firstCode; i++) {
+            if (values[i] != null) {
+                action.accept(i + firstCode, values[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Entry {
+        void accept(int code, String value);
+    }
+
+    private int insert(String value, int code, int slot) {
+        int index = code - firstCode;
+        if (index >= values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length * 2, index + 1));
+        }
+        values[index] = value;
+        slots[slot] = index + 1;
+        size++;
+        nextCode = Math.max(nextCode, code + 1);
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return code;
+    }
+
+    private int findSlot(String value) {
+        int mask = slots.length - 1;
+        int slot = mix(value.hashCode()) & mask;
+        while (slots[slot] != EMPTY && !values[slots[slot] - 1].equals(value)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        int[] old = slots;
+        slots = new int[old.length * 2];
+        int mask = slots.length - 1;
+        for (int entry : old) {
+            if (entry != EMPTY) {
+                int slot = mix(values[entry - 1].hashCode()) & mask;
+                while (slots[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = entry;
+            }
+        }
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
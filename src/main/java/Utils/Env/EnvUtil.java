@@ -38,6 +38,18 @@ public final class EnvUtil {
         return defaultValue;
     }
 
+    public static double getDouble(String key, double defaultValue) {
+        String value = DOTENV.get(key);
+        if (value != null) {
+            try {
+                return Double.parseDouble(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid number for key '" + key + "', using default " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
     public static boolean getBoolean(String key, boolean defaultValue) {
         String value = DOTENV.get(key);
         if (value != null) {
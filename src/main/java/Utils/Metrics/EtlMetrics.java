@@ -0,0 +1,175 @@
+package Utils.Metrics;
+
+import Models.Etl.Utils.EtlStage;
+import Utils.Database.PoolStats;
+import Utils.Logging.LoggingUtil;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static Utils.Env.EnvUtil.getBoolean;
+import static Utils.Env.EnvUtil.getInt;
+import static Utils.Env.EnvUtil.getString;
+
+/**
+ * Process-wide ETL metrics: a latency histogram, a row counter and a rows/s meter per
+ * {@link EtlStage}, rejected rows by reason, duplicate rows collapsed before the load and the
+ * wait for a pooled connection.
+ * Recording is always on and costs a few adders per call, so stages report once per batch or
+ * chunk, never per row. {@link #start()} publishes the metrics over JMX ({@code METRICS_JMX})
+ * and on {@code http://METRICS_HOST:METRICS_PORT/metrics} in the Prometheus text format.
+ */
+public final class EtlMetrics {
+    private static final Logger LOGGER = LoggingUtil.getLogger(EtlMetrics.class);
+
+    private static final boolean METRICS_JMX = getBoolean("METRICS_JMX", true);
+    private static final int METRICS_PORT = getInt("METRICS_PORT", 0);
+    private static final String METRICS_HOST = getString("METRICS_HOST", "127.0.0.1");
+    static final int THROUGHPUT_WINDOW_SECONDS = 10;
+
+    private static final String JMX_DOMAIN = "QualiteAirETL";
+
+    private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+    private static final Map<EtlStage, StageMetrics> STAGES = new EnumMap<>(EtlStage.class);
+    private static final LongAdder REJECTED = new LongAdder();
+    private static final Counter DUPLICATES = REGISTRY.counter("etl_duplicate_rows_total",
+            "Measurement rows dropped because a later row of the same batch has the same key.");
+    static final LatencyHistogram POOL_WAIT = REGISTRY.histogram("etl_pool_wait_seconds",
+            "Time spent waiting for a pooled database connection.");
+
+    private static final List<ObjectName> registeredBeans = new ArrayList<>();
+    private static MetricsServer server;
+
+    static {
+        for (EtlStage stage : EtlStage.values()) {
+            STAGES.put(stage, new StageMetrics(stage, REGISTRY));
+        }
+    }
+
+    private EtlMetrics() { /* no instances */ }
+
+    public static MetricsRegistry registry() {
+        return REGISTRY;
+    }
+
+    /** Records one call of {@code stage} that started at {@code startNanos} and handled {@code rows}. */
+    public static void record(EtlStage stage, long startNanos, long rows) {
+        STAGES.get(stage).record(System.nanoTime() - startNanos, rows);
+    }
+
+    public static void recordNanos(EtlStage stage, long nanos, long rows) {
+        STAGES.get(stage).record(nanos, rows);
+    }
+
+    public static void rejected(String reason, long rows) {
+        REGISTRY.counter("etl_rejected_rows_total", "Input rows skipped because they could not be used.",
+                "reason", reason).add(rows);
+        REJECTED.add(rows);
+    }
+
+    public static void duplicates(long rows) {
+        DUPLICATES.add(rows);
+    }
+
+    public static void poolWait(long nanos) {
+        POOL_WAIT.record(nanos);
+    }
+
+    /** Exposes the pool gauges; the supplier is only called when metrics are read. */
+    public static void registerPool(Supplier<PoolStats> stats) {
+        REGISTRY.gauge("etl_pool_connections", "Pooled connections by state.",
+                () -> stats.get().getActiveConnections(), "state", "active");
+        REGISTRY.gauge("etl_pool_connections", "Pooled connections by state.",
+                () -> stats.get().getIdleConnections(), "state", "idle");
+        REGISTRY.gauge("etl_pool_max_connections", "Maximum size of the connection pool.",
+                () -> stats.get().getMaxSize());
+        REGISTRY.gauge("etl_pool_waiting_threads", "Threads waiting for a pooled connection.",
+                () -> stats.get().getWaitingThreads());
+        REGISTRY.counter("etl_pool_timeouts_total", "Connection requests that timed out.",
+                () -> stats.get().getTimeouts());
+    }
+
+    static StageMetrics stage(EtlStage stage) {
+        return STAGES.get(stage);
+    }
+
+    static long duplicateRows() {
+        return DUPLICATES.get();
+    }
+
+    static long rejectedRows() {
+        return REJECTED.sum();
+    }
+
+    public static synchronized void start() {
+        if (METRICS_JMX && registeredBeans.isEmpty()) {
+            registerBeans();
+        }
+        if (METRICS_PORT > 0 && server == null) {
+            try {
+                server = new MetricsServer(REGISTRY, METRICS_HOST, METRICS_PORT);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Metrics endpoint disabled: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+        MBeanServer beans = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registeredBeans) {
+            try {
+                beans.unregisterMBean(name);
+            } catch (JMException e) {
+                LOGGER.log(Level.FINE, "Cannot unregister " + name, e);
+            }
+        }
+        registeredBeans.clear();
+        logSummary();
+    }
+
+    private static void registerBeans() {
+        MBeanServer beans = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (StageMetrics metrics : STAGES.values()) {
+                register(beans, metrics, new ObjectName(JMX_DOMAIN + ":type=Stage,name=" + metrics.getStage().getLabel()));
+            }
+            register(beans, new PipelineMetrics(), new ObjectName(JMX_DOMAIN + ":type=Pipeline"));
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Cannot register the metrics MBeans", e);
+        }
+    }
+
+    private static void register(MBeanServer beans, Object bean, ObjectName name) throws JMException {
+        if (!beans.isRegistered(name)) {
+            beans.registerMBean(bean, name);
+            registeredBeans.add(name);
+        }
+    }
+
+    private static void logSummary() {
+        for (StageMetrics metrics : STAGES.values()) {
+            if (metrics.getCalls() > 0) {
+                LOGGER.info(String.format("Stage %s: %,d calls, %,d rows, %,.0f ms total, p50 %.2f ms, p99 %.2f ms, max %.2f ms",
+                        metrics.getStage().getLabel(), metrics.getCalls(), metrics.getRows(), metrics.getTotalMillis(),
+                        metrics.getP50Millis(), metrics.getP99Millis(), metrics.getMaxMillis()));
+            }
+        }
+        if (REJECTED.sum() > 0) {
+            LOGGER.info(String.format("%,d input rows rejected", REJECTED.sum()));
+        }
+    }
+}
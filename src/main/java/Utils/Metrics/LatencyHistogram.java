@@ -0,0 +1,92 @@
+package Utils.Metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram (Prometheus layout, upper bounds in seconds). Recording is a
+ * bucket scan plus two adders, so it is cheap enough to call once per batch from any thread.
+ */
+public final class LatencyHistogram {
+
+    static final double[] BUCKET_SECONDS = {
+            0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 300
+    };
+
+    private static final long[] BUCKET_NANOS = new long[BUCKET_SECONDS.length];
+
+    static {
+        for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+            BUCKET_NANOS[i] = (long) (BUCKET_SECONDS[i] * 1e9);
+        }
+    }
+
+    /** One adder per bucket, plus the overflow bucket (+Inf). */
+    private final LongAdder[] buckets = new LongAdder[BUCKET_SECONDS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BUCKET_NANOS.length && nanos > BUCKET_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        sumNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /** Cumulative counts per upper bound, the last entry being +Inf, as exported to Prometheus. */
+    public long[] cumulativeCounts() {
+        long[] cumulative = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            total += buckets[i].sum();
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    /** Quantile estimate, interpolated linearly inside the bucket that contains it. */
+    public double quantileMillis(double quantile) {
+        long[] cumulative = cumulativeCounts();
+        long total = cumulative[cumulative.length - 1];
+        if (total == 0) {
+            return 0.0;
+        }
+        double rank = quantile * total;
+        for (int i = 0; i < cumulative.length; i++) {
+            if (cumulative[i] >= rank) {
+                if (i == BUCKET_NANOS.length) {
+                    return maxNanos.get() / 1e6;
+                }
+                long lower = i == 0 ? 0 : BUCKET_NANOS[i - 1];
+                long previous = i == 0 ? 0 : cumulative[i - 1];
+                long inBucket = cumulative[i] - previous;
+                double fraction = inBucket == 0 ? 1.0 : (rank - previous) / inBucket;
+                return Math.min(maxNanos.get(), lower + fraction * (BUCKET_NANOS[i] - lower)) / 1e6;
+            }
+        }
+        return maxNanos.get() / 1e6;
+    }
+}
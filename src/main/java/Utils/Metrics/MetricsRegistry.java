@@ -0,0 +1,120 @@
+package Utils.Metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Named metric families with optional labels, rendered in the Prometheus text format (0.0.4).
+ * Metrics are created on first use and then looked up by name and labels, so callers should keep
+ * the returned instance on hot paths rather than asking the registry every time.
+ */
+public final class MetricsRegistry {
+
+    private enum Type { COUNTER, GAUGE, HISTOGRAM }
+
+    private static final class Family {
+        private final String help;
+        private final Type type;
+        private final Map<String, Object> series = new ConcurrentSkipListMap<>();
+
+        private Family(String help, Type type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, Type.COUNTER).series
+                .computeIfAbsent(labelText(labels), key -> new Counter());
+    }
+
+    /** Registers a counter kept elsewhere, read at scrape time. */
+    public void counter(String name, String help, LongSupplier value, String... labels) {
+        family(name, help, Type.COUNTER).series.put(labelText(labels), value);
+    }
+
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, Type.HISTOGRAM).series
+                .computeIfAbsent(labelText(labels), key -> new LatencyHistogram());
+    }
+
+    /** Registers a gauge read at scrape time; registering the same series again replaces it. */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).series.put(labelText(labels), value);
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a "
+                    + family.type.name().toLowerCase(Locale.ROOT));
+        }
+        return family;
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4_096);
+        families.forEach((name, family) -> {
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type.name().toLowerCase(Locale.ROOT)).append('\n');
+            family.series.forEach((labels, metric) -> {
+                switch (family.type) {
+                    case COUNTER -> sample(out, name, labels, metric instanceof Counter counter
+                            ? counter.get() : ((LongSupplier) metric).getAsLong());
+                    case GAUGE -> sample(out, name, labels, ((DoubleSupplier) metric).getAsDouble());
+                    case HISTOGRAM -> histogram(out, name, labels, (LatencyHistogram) metric);
+                }
+            });
+        });
+        return out.toString();
+    }
+
+    private static void histogram(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        long[] cumulative = histogram.cumulativeCounts();
+        for (int i = 0; i < cumulative.length; i++) {
+            String le = i < LatencyHistogram.BUCKET_SECONDS.length
+                    ? Double.toString(LatencyHistogram.BUCKET_SECONDS[i]) : "+Inf";
+            String bucketLabels = labels.isEmpty() ? "le=\"" + le + "\"" : labels + ",le=\"" + le + "\"";
+            sample(out, name + "_bucket", bucketLabels, cumulative[i]);
+        }
+        sample(out, name + "_sum", labels, histogram.getSumNanos() / 1e9);
+        sample(out, name + "_count", labels, cumulative[cumulative.length - 1]);
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static String labelText(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return text.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
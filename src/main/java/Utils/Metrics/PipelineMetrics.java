@@ -0,0 +1,47 @@
+package Utils.Metrics;
+
+import Models.Etl.Utils.EtlStage;
+
+final class PipelineMetrics implements PipelineMetricsMBean {
+
+    @Override
+    public double getRowsPerSecond() {
+        return EtlMetrics.stage(EtlStage.EXECUTE).getRowsPerSecond();
+    }
+
+    @Override
+    public long getRowsLoaded() {
+        return EtlMetrics.stage(EtlStage.EXECUTE).getRows();
+    }
+
+    @Override
+    public long getRejectedRows() {
+        return EtlMetrics.rejectedRows();
+    }
+
+    @Override
+    public long getDuplicateRows() {
+        return EtlMetrics.duplicateRows();
+    }
+
+    @Override
+    public long getPoolAcquisitions() {
+        return EtlMetrics.POOL_WAIT.getCount();
+    }
+
+    @Override
+    public double getPoolWaitMeanMillis() {
+        long count = EtlMetrics.POOL_WAIT.getCount();
+        return count == 0 ? 0.0 : EtlMetrics.POOL_WAIT.getSumNanos() / 1e6 / count;
+    }
+
+    @Override
+    public double getPoolWaitP99Millis() {
+        return EtlMetrics.POOL_WAIT.quantileMillis(0.99);
+    }
+
+    @Override
+    public double getPoolWaitMaxMillis() {
+        return EtlMetrics.POOL_WAIT.getMaxNanos() / 1e6;
+    }
+}
@@ -0,0 +1,20 @@
+package Utils.Metrics;
+
+/** JMX view of the whole pipeline, registered as {@code QualiteAirETL:type=Pipeline}. */
+public interface PipelineMetricsMBean {
+    double getRowsPerSecond();
+
+    long getRowsLoaded();
+
+    long getRejectedRows();
+
+    long getDuplicateRows();
+
+    long getPoolAcquisitions();
+
+    double getPoolWaitMeanMillis();
+
+    double getPoolWaitP99Millis();
+
+    double getPoolWaitMaxMillis();
+}
@@ -0,0 +1,80 @@
+package Utils.Metrics;
+
+import Models.Etl.Utils.EtlStage;
+import lombok.Getter;
+
+/** Latency, row count and recent throughput of one {@link EtlStage}. */
+public final class StageMetrics implements StageMetricsMBean {
+
+    @Getter
+    private final EtlStage stage;
+    private final LatencyHistogram latency;
+    private final Counter rows;
+    private final ThroughputMeter throughput;
+
+    StageMetrics(EtlStage stage, MetricsRegistry registry) {
+        this.stage = stage;
+        this.latency = registry.histogram("etl_stage_duration_seconds",
+                "Time spent per call of an ETL stage.", "stage", stage.getLabel());
+        this.rows = registry.counter("etl_stage_rows_total",
+                "Rows handled by an ETL stage.", "stage", stage.getLabel());
+        this.throughput = new ThroughputMeter(EtlMetrics.THROUGHPUT_WINDOW_SECONDS);
+        registry.gauge("etl_stage_rows_per_second",
+                "Rows per second handled by an ETL stage over the last seconds.",
+                throughput::perSecond, "stage", stage.getLabel());
+    }
+
+    void record(long nanos, long rowCount) {
+        latency.record(nanos);
+        if (rowCount > 0) {
+            rows.add(rowCount);
+            throughput.mark(rowCount);
+        }
+    }
+
+    @Override
+    public long getCalls() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.get();
+    }
+
+    @Override
+    public double getTotalMillis() {
+        return latency.getSumNanos() / 1e6;
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long calls = latency.getCount();
+        return calls == 0 ? 0.0 : latency.getSumNanos() / 1e6 / calls;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.quantileMillis(0.50);
+    }
+
+    @Override
+    public double getP95Millis() {
+        return latency.quantileMillis(0.95);
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.quantileMillis(0.99);
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMaxNanos() / 1e6;
+    }
+
+    @Override
+    public double getRowsPerSecond() {
+        return throughput.perSecond();
+    }
+}
@@ -0,0 +1,22 @@
+package Utils.Metrics;
+
+/** JMX view of one ETL stage, registered as {@code QualiteAirETL:type=Stage,name=<stage>}. */
+public interface StageMetricsMBean {
+    long getCalls();
+
+    long getRows();
+
+    double getTotalMillis();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    double getRowsPerSecond();
+}
@@ -0,0 +1,43 @@
+package Utils.Metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** Events per second over a sliding window of whole seconds, excluding the current one. */
+public final class ThroughputMeter {
+
+    private final int windowSeconds;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray seconds;
+
+    public ThroughputMeter(int windowSeconds) {
+        this.windowSeconds = windowSeconds;
+        this.counts = new AtomicLongArray(windowSeconds + 1);
+        this.seconds = new AtomicLongArray(windowSeconds + 1);
+    }
+
+    public void mark(long events) {
+        long now = currentSecond();
+        int slot = (int) (now % counts.length());
+        long slotSecond = seconds.get(slot);
+        if (slotSecond != now && seconds.compareAndSet(slot, slotSecond, now)) {
+            counts.set(slot, 0);
+        }
+        counts.addAndGet(slot, events);
+    }
+
+    public double perSecond() {
+        long now = currentSecond();
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            long second = seconds.get(i);
+            if (second < now && second >= now - windowSeconds) {
+                total += counts.get(i);
+            }
+        }
+        return (double) total / windowSeconds;
+    }
+
+    private static long currentSecond() {
+        return System.nanoTime() / 1_000_000_000L;
+    }
+}
@@ -0,0 +1,385 @@
+package Utils.Parsing;
+
+import Utils.Time.EpochDayUtil;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped CSV tokenizer that exposes the fields of the current row as byte ranges.
+ * Only rows starting inside [startOffset, endOffset) are returned, so a file can be split
+ * into line-aligned ranges and read by several readers.
+ */
+public final class CsvByteReader implements Closeable {
+
+    public static final int NO_DATE = EpochDayUtil.NO_DATE;
+
+    private static final long SEGMENT_SIZE = 256L * 1024 * 1024;
+    private static final int MAX_FIELDS = 64;
+    private static final byte QUOTE = '"';
+    private static final byte COMMA = ',';
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long endOffset;
+
+    private MappedByteBuffer buffer;
+    private long bufferStart;
+    private int position;
+
+    private final int[] fieldStart = new int[MAX_FIELDS];
+    private final int[] fieldEnd = new int[MAX_FIELDS];
+    private final boolean[] fieldEscaped = new boolean[MAX_FIELDS];
+    private int fieldCount;
+    private long rowOffset;
+
+    public CsvByteReader(Path path) throws IOException {
+        this(path, 0, Long.MAX_VALUE);
+    }
+
+    public CsvByteReader(Path path, long startOffset, long endOffset) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.endOffset = Math.min(endOffset, fileSize);
+        map(Math.min(startOffset, fileSize));
+        if (startOffset == 0) {
+            skipByteOrderMark();
+        }
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public long getRowOffset() {
+        return rowOffset;
+    }
+
+    public long getPosition() {
+        return bufferStart + position;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public boolean nextRow() throws IOException {
+        while (true) {
+            long rowStart = bufferStart + position;
+            if (rowStart >= endOffset) {
+                return false;
+            }
+
+            int status = tokenizeRow();
+            if (status == ROW_COMPLETE) {
+                rowOffset = rowStart;
+                if (fieldCount == 1 && fieldStart[0] == fieldEnd[0]) {
+                    continue;
+                }
+                return true;
+            }
+
+            if (bufferStart + buffer.limit() >= fileSize) {
+                throw new IOException("Unterminated quoted field at offset " + rowStart);
+            }
+            if (position == 0) {
+                throw new IOException("Row at offset " + rowStart + " is larger than " + SEGMENT_SIZE + " bytes");
+            }
+            map(rowStart);
+        }
+    }
+
+    private static final int ROW_COMPLETE = 0;
+    private static final int NEEDS_MORE_INPUT = 1;
+
+    private int tokenizeRow() throws IOException {
+        int pos = position;
+        int limit = buffer.limit();
+        boolean atEndOfFile = bufferStart + limit >= fileSize;
+        int count = 0;
+
+        while (true) {
+            if (count == MAX_FIELDS) {
+                throw new IOException("Row at offset " + (bufferStart + position) + " has more than " + MAX_FIELDS + " fields");
+            }
+
+            boolean escaped = false;
+            int start;
+            int end;
+
+            if (pos < limit && buffer.get(pos) == QUOTE) {
+                start = pos + 1;
+                int p = start;
+                while (true) {
+                    if (p >= limit) {
+                        return NEEDS_MORE_INPUT;
+                    }
+                    if (buffer.get(p) == QUOTE) {
+                        if (p + 1 < limit && buffer.get(p + 1) == QUOTE) {
+                            escaped = true;
+                            p += 2;
+                            continue;
+                        }
+                        if (p + 1 >= limit && !atEndOfFile) {
+                            return NEEDS_MORE_INPUT;
+                        }
+                        break;
+                    }
+                    p++;
+                }
+                end = p;
+                pos = p + 1;
+                while (pos < limit && buffer.get(pos) != COMMA && buffer.get(pos) != LF) {
+                    pos++;
+                }
+            } else {
+                start = pos;
+                while (pos < limit && buffer.get(pos) != COMMA && buffer.get(pos) != LF) {
+                    pos++;
+                }
+                end = pos;
+            }
+
+            if (pos >= limit && !atEndOfFile) {
+                return NEEDS_MORE_INPUT;
+            }
+
+            fieldStart[count] = start;
+            fieldEnd[count] = end;
+            fieldEscaped[count] = escaped;
+            count++;
+
+            if (pos >= limit) {
+                trimCarriageReturn(count - 1);
+                fieldCount = count;
+                position = limit;
+                return ROW_COMPLETE;
+            }
+
+            byte delimiter = buffer.get(pos++);
+            if (delimiter == LF) {
+                trimCarriageReturn(count - 1);
+                fieldCount = count;
+                position = pos;
+                return ROW_COMPLETE;
+            }
+        }
+    }
+
+    private void trimCarriageReturn(int field) {
+        if (fieldEnd[field] > fieldStart[field] && buffer.get(fieldEnd[field] - 1) == CR) {
+            fieldEnd[field]--;
+        }
+    }
+
+    private void map(long offset) throws IOException {
+        long length = Math.min(SEGMENT_SIZE, fileSize - offset);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        bufferStart = offset;
+        position = 0;
+    }
+
+    private void skipByteOrderMark() {
+        if (buffer.limit() >= 3
+                && (buffer.get(0) & 0xFF) == 0xEF
+                && (buffer.get(1) & 0xFF) == 0xBB
+                && (buffer.get(2) & 0xFF) == 0xBF) {
+            position = 3;
+        }
+    }
+
+    public boolean isBlank(int field) {
+        return fieldEnd[field] <= fieldStart[field];
+    }
+
+    public boolean fieldEquals(int field, byte[] value) {
+        int start = fieldStart[field];
+        int length = fieldEnd[field] - start;
+        if (length != value.length || fieldEscaped[field]) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int fieldHash(int field) {
+        int h = 1;
+        for (int i = fieldStart[field]; i < fieldEnd[field]; i++) {
+            h = 31 * h + buffer.get(i);
+        }
+        return h;
+    }
+
+    public String getString(int field) {
+        int start = fieldStart[field];
+        int length = fieldEnd[field] - start;
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes, 0, length);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        return fieldEscaped[field] ? value.replace("\"\"", "\"") : value;
+    }
+
+    public int parseInt(int field) {
+        int pos = fieldStart[field];
+        int end = fieldEnd[field];
+        if (pos >= end) {
+            return 0;
+        }
+
+        boolean negative = false;
+        byte first = buffer.get(pos);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            pos++;
+            if (pos >= end) {
+                throw invalidNumber(field);
+            }
+        }
+
+        long value = 0;
+        for (; pos < end; pos++) {
+            int digit = buffer.get(pos) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalidNumber(field);
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw invalidNumber(field);
+            }
+        }
+
+        long signed = negative ? -value : value;
+        if (signed > Integer.MAX_VALUE) {
+            throw invalidNumber(field);
+        }
+        return (int) signed;
+    }
+
+    public double parseDouble(int field) {
+        int pos = fieldStart[field];
+        int end = fieldEnd[field];
+        if (pos >= end) {
+            return 0.0;
+        }
+
+        boolean negative = false;
+        byte first = buffer.get(pos);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            pos++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        boolean seenDigit = false;
+
+        for (; pos < end; pos++) {
+            byte b = buffer.get(pos);
+            if (b >= '0' && b <= '9') {
+                seenDigit = true;
+                if (digits == 0 && b == '0') {
+                    if (seenPoint) {
+                        fractionDigits++;
+                    }
+                    continue;
+                }
+                if (++digits > 18) {
+                    return parseDoubleSlow(field);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else if (b == 'e' || b == 'E') {
+                return parseDoubleSlow(field);
+            } else {
+                throw invalidNumber(field);
+            }
+        }
+
+        if (!seenDigit) {
+            throw invalidNumber(field);
+        }
+        if (mantissa >= (1L << 53) || fractionDigits >= POWERS_OF_TEN.length) {
+            return parseDoubleSlow(field);
+        }
+
+        double value = fractionDigits == 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private double parseDoubleSlow(int field) {
+        try {
+            return Double.parseDouble(getString(field).trim());
+        } catch (NumberFormatException e) {
+            throw invalidNumber(field);
+        }
+    }
+
+    public int parseEpochDay(int field) {
+        int pos = fieldStart[field];
+        if (fieldEnd[field] - pos != 10
+                || buffer.get(pos + 4) != '-'
+                || buffer.get(pos + 7) != '-') {
+            return NO_DATE;
+        }
+
+        int year = digits(pos, 4);
+        int month = digits(pos + 5, 2);
+        int day = digits(pos + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return NO_DATE;
+        }
+        return EpochDayUtil.toEpochDay(year, month, day);
+    }
+
+    private int digits(int pos, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            int digit = buffer.get(pos + i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private NumberFormatException invalidNumber(int field) {
+        return new NumberFormatException("Invalid number '" + getString(field) + "' in field " + field
+                + " of row at offset " + rowOffset);
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+}
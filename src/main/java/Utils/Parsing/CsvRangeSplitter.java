@@ -0,0 +1,120 @@
+package Utils.Parsing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Splits the data section of a CSV file into byte ranges that each start at the beginning of a row.
+ * Quote parity is counted per range in parallel first, so a newline inside a quoted field is never
+ * taken for a row boundary.
+ */
+public final class CsvRangeSplitter {
+
+    private static final long MAX_RANGE_BYTES = 256L * 1024 * 1024;
+
+    private CsvRangeSplitter() { /* no instances */ }
+
+    public static List<long[]> split(Path path, long dataOffset, int rangeCount, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataLength = size - dataOffset;
+            if (dataLength <= 0) {
+                return List.of();
+            }
+
+            int count = (int) Math.min(dataLength,
+                    Math.max(1, Math.max(rangeCount, Math.ceilDiv(dataLength, MAX_RANGE_BYTES))));
+
+            long[] candidates = new long[count + 1];
+            for (int i = 0; i <= count; i++) {
+                candidates[i] = dataOffset + dataLength * i / count;
+            }
+
+            int[] quoteCounts = runOnPool(pool, () -> IntStream.range(0, count).parallel()
+                    .map(i -> countQuotes(channel, candidates[i], candidates[i + 1]))
+                    .toArray());
+
+            boolean[] insideQuotes = new boolean[count];
+            int parity = 0;
+            for (int i = 0; i < count; i++) {
+                insideQuotes[i] = (parity & 1) == 1;
+                parity += quoteCounts[i];
+            }
+
+            long[] boundaries = runOnPool(pool, () -> IntStream.range(0, count).parallel()
+                    .mapToLong(i -> i == 0 ? dataOffset : nextRowStart(channel, candidates[i], insideQuotes[i], size))
+                    .toArray());
+
+            List<long[]> ranges = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long start = boundaries[i];
+                long end = i + 1 < count ? boundaries[i + 1] : size;
+                if (end > start) {
+                    ranges.add(new long[]{start, end});
+                }
+            }
+            return ranges;
+        }
+    }
+
+    private static <T> T runOnPool(ForkJoinPool pool, Callable<T> task) throws IOException {
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while splitting CSV file", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IOException("Failed to split CSV file", e.getCause());
+        }
+    }
+
+    private static int countQuotes(FileChannel channel, long start, long end) {
+        MappedByteBuffer buffer = map(channel, start, end - start);
+        int quotes = 0;
+        for (int i = 0, n = buffer.limit(); i < n; i++) {
+            if (buffer.get(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    private static long nextRowStart(FileChannel channel, long from, boolean insideQuotes, long size) {
+        long position = from;
+        boolean quoted = insideQuotes;
+        while (position < size) {
+            MappedByteBuffer buffer = map(channel, position, Math.min(MAX_RANGE_BYTES, size - position));
+            for (int i = 0, n = buffer.limit(); i < n; i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted) {
+                    return position + i + 1;
+                }
+            }
+            position += buffer.limit();
+        }
+        return size;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long offset, long length) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package Utils.Spatial;
+
+import Models.Station;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable 2-d tree over the latitude/longitude of stations, for nearest-neighbour and
+ * bounding-box lookups in O(log n) instead of a scan. The tree is implicit: the node of the
+ * range {@code [lo, hi)} is at its middle and splits on latitude at even depths, longitude at
+ * odd ones. Building costs O(n log n) on a few arrays, so the index is rebuilt rather than
+ * updated when stations change. Distances are great-circle kilometres; longitudes are not
+ * wrapped at the antimeridian. Stations without usable coordinates are left out.
+ */
+public final class StationIndex {
+    private static final double EARTH_RADIUS_KM = 6_371.0088;
+
+    private static final StationIndex EMPTY = new StationIndex(new Station[0], new double[0], new double[0]);
+
+    private final Station[] stations;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private StationIndex(Station[] stations, double[] latitudes, double[] longitudes) {
+        this.stations = stations;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    public static StationIndex empty() {
+        return EMPTY;
+    }
+
+    public static StationIndex build(Collection<Station> stations) {
+        Station[] located = stations.stream().filter(StationIndex::hasCoordinates).toArray(Station[]::new);
+        double[] latitudes = new double[located.length];
+        double[] longitudes = new double[located.length];
+        for (int i = 0; i < located.length; i++) {
+            latitudes[i] = located[i].getLatitude();
+            longitudes[i] = located[i].getLongitude();
+        }
+        StationIndex index = new StationIndex(located, latitudes, longitudes);
+        index.arrange(0, located.length, 0);
+        return index;
+    }
+
+    private static boolean hasCoordinates(Station station) {
+        double lat = station.getLatitude();
+        double lon = station.getLongitude();
+        return Double.isFinite(lat) && Double.isFinite(lon) && Math.abs(lat) <= 90 && Math.abs(lon) <= 180
+                && (lat != 0 || lon != 0);
+    }
+
+    public int size() {
+        return stations.length;
+    }
+
+    /** The {@code k} stations closest to the point, closest first. */
+    public List<Station> nearest(double latitude, double longitude, int k) {
+        int count = Math.min(k, stations.length);
+        if (count <= 0) {
+            return List.of();
+        }
+        Neighbours neighbours = new Neighbours(count);
+        searchNearest(0, stations.length, 0, latitude, longitude, Math.cos(Math.toRadians(latitude)), neighbours);
+        return neighbours.sorted(stations);
+    }
+
+    /** Stations inside the box, bounds included, in no particular order. */
+    public List<Station> within(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        List<Station> found = new ArrayList<>();
+        searchWithin(0, stations.length, 0, minLatitude, minLongitude, maxLatitude, maxLongitude, found);
+        return found;
+    }
+
+    public static double distanceKm(Station station, double latitude, double longitude) {
+        return haversineKm(station.getLatitude(), station.getLongitude(), latitude, longitude);
+    }
+
+    private void arrange(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth % 2 == 0 ? latitudes : longitudes);
+        arrange(lo, mid, depth + 1);
+        arrange(mid + 1, hi, depth + 1);
+    }
+
+    /** Quickselect: puts the {@code k}-th smallest {@code keys} value at {@code k}, smaller ones before it. */
+    private void select(int left, int right, int k, double[] keys) {
+        while (left < right) {
+            double pivot = keys[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        Station station = stations[i];
+        stations[i] = stations[j];
+        stations[j] = station;
+        double lat = latitudes[i];
+        latitudes[i] = latitudes[j];
+        latitudes[j] = lat;
+        double lon = longitudes[i];
+        longitudes[i] = longitudes[j];
+        longitudes[j] = lon;
+    }
+
+    private void searchNearest(int lo, int hi, int depth, double lat, double lon, double cosLat,
+                               Neighbours neighbours) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        neighbours.offer(mid, haversineKm(latitudes[mid], longitudes[mid], lat, lon));
+
+        boolean byLatitude = depth % 2 == 0;
+        double delta = byLatitude ? lat - latitudes[mid] : lon - longitudes[mid];
+        boolean lowSideFirst = delta < 0;
+        if (lowSideFirst) {
+            searchNearest(lo, mid, depth + 1, lat, lon, cosLat, neighbours);
+        } else {
+            searchNearest(mid + 1, hi, depth + 1, lat, lon, cosLat, neighbours);
+        }
+        if (!neighbours.isFull() || planeDistanceKm(byLatitude, delta, cosLat) < neighbours.worstDistance()) {
+            if (lowSideFirst) {
+                searchNearest(mid + 1, hi, depth + 1, lat, lon, cosLat, neighbours);
+            } else {
+                searchNearest(lo, mid, depth + 1, lat, lon, cosLat, neighbours);
+            }
+        }
+    }
+
+    /**
+     * Lower bound of the distance to any point across the split: the meridian arc for a
+     * latitude split, the distance to the meridian's great circle for a longitude split.
+     */
+    private static double planeDistanceKm(boolean byLatitude, double delta, double cosLat) {
+        double radians = Math.toRadians(Math.abs(delta));
+        if (byLatitude) {
+            return radians * EARTH_RADIUS_KM;
+        }
+        if (radians >= Math.PI / 2) {
+            return 0;
+        }
+        return Math.asin(Math.min(1, Math.abs(cosLat) * Math.sin(radians))) * EARTH_RADIUS_KM;
+    }
+
+    private void searchWithin(int lo, int hi, int depth, double minLat, double minLon, double maxLat, double maxLon,
+                              List<Station> found) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double lat = latitudes[mid];
+        double lon = longitudes[mid];
+        if (lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon) {
+            found.add(stations[mid]);
+        }
+        double key = depth % 2 == 0 ? lat : lon;
+        double min = depth % 2 == 0 ? minLat : minLon;
+        double max = depth % 2 == 0 ? maxLat : maxLon;
+        if (min <= key) {
+            searchWithin(lo, mid, depth + 1, minLat, minLon, maxLat, maxLon, found);
+        }
+        if (max >= key) {
+            searchWithin(mid + 1, hi, depth + 1, minLat, minLon, maxLat, maxLon, found);
+        }
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /** The best {@code capacity} candidates so far, as a max-heap on distance. */
+    private static final class Neighbours {
+        private final int[] positions;
+        private final double[] distances;
+        private int size;
+
+        private Neighbours(int capacity) {
+            positions = new int[capacity];
+            distances = new double[capacity];
+        }
+
+        boolean isFull() {
+            return size == positions.length;
+        }
+
+        double worstDistance() {
+            return distances[0];
+        }
+
+        void offer(int position, double distance) {
+            if (size < positions.length) {
+                int i = size++;
+                while (i > 0 && distances[(i - 1) / 2] < distance) {
+                    positions[i] = positions[(i - 1) / 2];
+                    distances[i] = distances[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                positions[i] = position;
+                distances[i] = distance;
+            } else if (distance < distances[0]) {
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && distances[child + 1] > distances[child]) {
+                        child++;
+                    }
+                    if (distances[child] <= distance) {
+                        break;
+                    }
+                    positions[i] = positions[child];
+                    distances[i] = distances[child];
+                    i = child;
+                }
+                positions[i] = position;
+                distances[i] = distance;
+            }
+        }
+
+        List<Station> sorted(Station[] stations) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(distances[a], distances[b]));
+            List<Station> result = new ArrayList<>(size);
+            for (int i : order) {
+                result.add(stations[positions[i]]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package Utils.Time;
+
+import java.time.LocalDate;
+
+public final class EpochDayUtil {
+
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    private EpochDayUtil() { /* no instances */ }
+
+    public static int toEpochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    public static int toEpochDay(LocalDate date) {
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+
+    public static LocalDate toLocalDate(int epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /** Returns {@code year * 10000 + month * 100 + day} without allocating. */
+    public static int toYearMonthDay(int epochDay) {
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 10000 + month * 100 + day;
+    }
+
+    public static int monthIndex(int epochDay) {
+        if (epochDay == NO_DATE) {
+            return 0;
+        }
+        int ymd = toYearMonthDay(epochDay);
+        return Math.floorDiv(ymd, 10000) * 12 + Math.floorMod(ymd, 10000) / 100 - 1;
+    }
+
+    public static void appendIsoDate(StringBuilder buffer, int epochDay) {
+        int ymd = toYearMonthDay(epochDay);
+        int year = ymd / 10000;
+        int month = ymd / 100 % 100;
+        int day = ymd % 100;
+        if (year < 1000) {
+            buffer.append(year < 10 ? "000" : year < 100 ? "00" : "0");
+        }
+        buffer.append(year).append('-');
+        if (month < 10) buffer.append('0');
+        buffer.append(month).append('-');
+        if (day < 10) buffer.append('0');
+        buffer.append(day);
+    }
+}
@@ -0,0 +1,36 @@
+package Utils.Time;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Shared {@link java.sql.Date} instances for epoch days between 1970 and 2100, created on first
+ * use. Loads bind the same few hundred dates millions of times; the cache turns each bind into
+ * an array read instead of a {@code LocalDate} and a {@code Date} allocation plus a time zone
+ * lookup. The instances are shared: callers must not modify them.
+ */
+public final class SqlDateCache {
+    private static final int FIRST_DAY = 0;
+    private static final int LAST_DAY = EpochDayUtil.toEpochDay(2100, 1, 1);
+
+    private static final AtomicReferenceArray<Date> DATES = new AtomicReferenceArray<>(LAST_DAY - FIRST_DAY);
+
+    private SqlDateCache() { /* no instances */ }
+
+    /** The date of {@code epochDay} at midnight in the default time zone, or {@code null} for {@link EpochDayUtil#NO_DATE}. */
+    public static Date get(int epochDay) {
+        if (epochDay == EpochDayUtil.NO_DATE) {
+            return null;
+        }
+        if (epochDay < FIRST_DAY || epochDay >= LAST_DAY) {
+            return Date.valueOf(LocalDate.ofEpochDay(epochDay));
+        }
+        Date date = DATES.getAcquire(epochDay - FIRST_DAY);
+        if (date == null) {
+            date = Date.valueOf(LocalDate.ofEpochDay(epochDay));
+            DATES.setRelease(epochDay - FIRST_DAY, date);
+        }
+        return date;
+    }
+}